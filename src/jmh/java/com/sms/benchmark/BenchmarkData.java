@@ -0,0 +1,75 @@
+package com.sms.benchmark;
+
+import com.sms.dto.CourseDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.entity.Course;
+import com.sms.entity.Enrollment;
+import com.sms.entity.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detached entity graphs and DTOs shaped like production data, shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static List<Course> courses(int count) {
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Course course = new Course();
+            course.setCourseId(i);
+            course.setName("Course " + i);
+            course.setCredits(3);
+            course.setDescription("Introductory course number " + i + " covering the fundamentals of the subject.");
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    static Student student(int id, List<Course> courses, int enrollmentsPerStudent) {
+        Student student = new Student();
+        student.setStudentId(id);
+        student.setFirstName("First" + id);
+        student.setLastName("Last" + id);
+        student.setEmail("student" + id + "@sms.com");
+        student.setPhone(String.valueOf(9_000_000_000L + id));
+        student.setAddress(id + " University Avenue, Springfield");
+        for (int i = 0; i < enrollmentsPerStudent; i++) {
+            Enrollment enrollment = new Enrollment();
+            enrollment.setStudent(student);
+            enrollment.setCourse(courses.get((id + i) % courses.size()));
+            student.getEnrollments().add(enrollment);
+        }
+        return student;
+    }
+
+    static List<StudentDTO> studentDTOs(int count, int enrollmentsPerStudent) {
+        List<Course> courses = courses(50);
+        List<StudentDTO> students = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Student student = student(i, courses, enrollmentsPerStudent);
+            StudentDTO dto = StudentDTO.builder()
+                    .id(student.getStudentId())
+                    .firstName(student.getFirstName())
+                    .lastName(student.getLastName())
+                    .email(student.getEmail())
+                    .phoneNumber(student.getPhone())
+                    .address(student.getAddress())
+                    .enrolledCourses(student.getEnrollments().stream()
+                            .map(e -> CourseDTO.builder()
+                                    .id(e.getCourse().getCourseId())
+                                    .name(e.getCourse().getName())
+                                    .credits(e.getCourse().getCredits())
+                                    .description(e.getCourse().getDescription())
+                                    .build())
+                            .toList())
+                    .build();
+            students.add(dto);
+        }
+        return students;
+    }
+}
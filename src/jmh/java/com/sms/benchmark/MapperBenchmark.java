@@ -0,0 +1,66 @@
+package com.sms.benchmark;
+
+import com.sms.dto.CourseDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.entity.Course;
+import com.sms.entity.Enrollment;
+import com.sms.entity.Student;
+import com.sms.mapper.CourseMapper;
+import com.sms.mapper.StudentMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping on fully initialised, detached graphs, i.e. the CPU cost of the
+ * mappers alone without any lazy loading.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+
+    @Param({"5"})
+    int enrollmentsPerStudent;
+
+    // a large intro course roster
+    @Param({"600"})
+    int rosterSize;
+
+    private Student student;
+    private Course course;
+    private List<Enrollment> roster;
+
+    @Setup
+    public void setUp() {
+        List<Course> courses = BenchmarkData.courses(50);
+        student = BenchmarkData.student(1, courses, enrollmentsPerStudent);
+        course = courses.getFirst();
+        roster = new ArrayList<>(rosterSize);
+        for (int i = 1; i <= rosterSize; i++) {
+            Enrollment enrollment = new Enrollment();
+            enrollment.setCourse(course);
+            enrollment.setStudent(BenchmarkData.student(i, courses, enrollmentsPerStudent));
+            roster.add(enrollment);
+        }
+    }
+
+    @Benchmark
+    public StudentDTO mapToStudentDTO() {
+        return StudentMapper.mapToStudentDTO(student, new StudentDTO());
+    }
+
+    @Benchmark
+    public CourseDTO mapCourseEnrollments() {
+        return CourseMapper.mapCourseEnrollments(CourseMapper.mapToCourseDTO(course, new CourseDTO()), roster);
+    }
+}
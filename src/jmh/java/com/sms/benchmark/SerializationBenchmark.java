@@ -0,0 +1,74 @@
+package com.sms.benchmark;
+
+import com.sms.dto.StudentDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Jackson serialization of StudentDTO lists as returned by GET /api/student, in each format the
+ * Accept header can pick, with and without the gzip Tomcat applies to large responses. The time is
+ * the CPU spent per response; the bytes that go on the wire for each combination are printed once
+ * per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int students;
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"false", "true"})
+    boolean gzip;
+
+    private ObjectMapper mapper;
+
+    private List<StudentDTO> payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = switch (format) {
+            case "json" -> JsonMapper.builder().build();
+            case "cbor" -> CBORMapper.builder().build();
+            case "smile" -> SmileMapper.builder().build();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        payload = BenchmarkData.studentDTOs(students, 5);
+        System.out.printf("%n%s%s, %d students: %,d bytes on the wire%n",
+                format, gzip ? "+gzip" : "", students, serializeStudentList().length);
+    }
+
+    @Benchmark
+    public byte[] serializeStudentList() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        // Tomcat's gzip filter uses the default deflate level as well
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            mapper.writeValue(out, payload);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+}
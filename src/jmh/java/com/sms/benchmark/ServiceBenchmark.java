@@ -0,0 +1,126 @@
+package com.sms.benchmark;
+
+import com.sms.StudentmanagementApiApplication;
+import com.sms.dto.BulkImportResultDTO;
+import com.sms.dto.BulkRowResultDTO;
+import com.sms.dto.CourseDTO;
+import com.sms.dto.CourseRosterEntryDTO;
+import com.sms.dto.PageResponseDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.service.ICourseService;
+import com.sms.service.IStudentEnrollmentService;
+import com.sms.service.IStudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service read paths end to end against an in-memory H2 (the test "h2" profile) seeded with
+ * a registration-sized data set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ServiceBenchmark {
+
+    @Param({"2000"})
+    int students;
+
+    @Param({"50"})
+    int courses;
+
+    @Param({"5"})
+    int enrollmentsPerStudent;
+
+    private ConfigurableApplicationContext context;
+    private IStudentService studentService;
+    private ICourseService courseService;
+    private List<Integer> studentIds;
+    private List<Integer> courseIds;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(StudentmanagementApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("h2")
+                .properties("spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        studentService = context.getBean(IStudentService.class);
+        courseService = context.getBean(ICourseService.class);
+        IStudentEnrollmentService enrollmentService = context.getBean(IStudentEnrollmentService.class);
+
+        courseIds = new ArrayList<>();
+        for (int i = 0; i < courses; i++) {
+            courseIds.add(courseService.createCourse(CourseDTO.builder()
+                    .name("Course " + i).credits(3)
+                    .description("Introductory course number " + i + " covering the fundamentals of the subject.")
+                    .build()).getId());
+        }
+        List<StudentDTO> requests = BenchmarkData.studentDTOs(students, 0);
+        requests.forEach(dto -> dto.setId(null));
+        BulkImportResultDTO imported = studentService.importStudents(requests);
+        studentIds = imported.getRows().stream().map(BulkRowResultDTO::getId).toList();
+        for (int c = 0; c < courses; c++) {
+            List<Integer> cohort = new ArrayList<>();
+            for (int s = 0; s < studentIds.size(); s++) {
+                if ((s + c) % courses < enrollmentsPerStudent) {
+                    cohort.add(studentIds.get(s));
+                }
+            }
+            enrollmentService.enrollStudents(courseIds.get(c), cohort);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<StudentDTO> getAllStudents() {
+        return studentService.getAllStudents();
+    }
+
+    @Benchmark
+    public PageResponseDTO<StudentDTO> getStudentsPage() {
+        PageResponseDTO<StudentDTO> page = studentService.getStudentsPage(cursor == 0 ? null : cursor, 50);
+        cursor = page.getNextCursor() == null ? 0 : page.getNextCursor();
+        return page;
+    }
+
+    @Benchmark
+    public StudentDTO getStudentById() {
+        return studentService.getStudentById(studentIds.get(cursor++ % studentIds.size()));
+    }
+
+    @Benchmark
+    public List<CourseDTO> getAllCourses() {
+        return courseService.getAllCourses();
+    }
+
+    @Benchmark
+    public CourseDTO getCourseById() {
+        return courseService.getCourseById(courseIds.get(cursor++ % courseIds.size()));
+    }
+
+    @Benchmark
+    public PageResponseDTO<CourseRosterEntryDTO> getCourseRoster() {
+        return courseService.getCourseRoster(courseIds.get(cursor++ % courseIds.size()), null, 50);
+    }
+}
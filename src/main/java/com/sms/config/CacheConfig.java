@@ -0,0 +1,15 @@
+package com.sms.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Course catalog caching. The caching advice is ordered outside the transaction advice
+ * so that evictions on the write paths run after the transaction has committed, otherwise
+ * a concurrent read could re-cache the old row between the eviction and the commit.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+}
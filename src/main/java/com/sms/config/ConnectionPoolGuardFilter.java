@@ -0,0 +1,69 @@
+package com.sms.config;
+
+import com.sms.exception.ServiceBusyException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of /api requests in flight below the size of the connection pool. With virtual
+ * threads Tomcat no longer limits concurrency, so without this every request would get as far
+ * as Hikari and queue there for a connection; here the excess waits up to the acquire timeout
+ * and is then turned away with a 503 instead of piling up. Background work takes connections
+ * without passing through here, so the cap is set with that share of the pool held back.
+ */
+public class ConnectionPoolGuardFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxConcurrentRequests;
+    private final Duration acquireTimeout;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public ConnectionPoolGuardFilter(int maxConcurrentRequests, Duration acquireTimeout,
+                                     HandlerExceptionResolver handlerExceptionResolver) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.acquireTimeout = acquireTimeout;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            // rendered by GlobalExceptionHandler like any other API error
+            handlerExceptionResolver.resolveException(request, response, null,
+                    new ServiceBusyException(maxConcurrentRequests));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+}
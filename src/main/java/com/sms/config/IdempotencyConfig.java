@@ -0,0 +1,45 @@
+package com.sms.config;
+
+import com.sms.idempotency.IdempotencyFilter;
+import com.sms.idempotency.IdempotencyStore;
+import com.sms.idempotency.InMemoryIdempotencyStore;
+import com.sms.idempotency.JdbcIdempotencyStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key handling for POST /api requests. sms.idempotency.store picks where the keys
+ * live: memory (default, per instance) or jdbc (the sms.idempotency_key table).
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "sms.idempotency.store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(@Value("${sms.idempotency.ttl}") Duration ttl,
+                                                     @Value("${sms.idempotency.max-entries}") long maxEntries) {
+        return new InMemoryIdempotencyStore(ttl, maxEntries);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "sms.idempotency.store", havingValue = "jdbc")
+    public IdempotencyStore jdbcIdempotencyStore(JdbcTemplate jdbcTemplate,
+                                                 @Value("${sms.idempotency.ttl}") Duration ttl,
+                                                 @Value("${sms.idempotency.abandoned-after}") Duration abandonedAfter,
+                                                 @Value("${sms.idempotency.max-entries}") long maxEntries) {
+        return new JdbcIdempotencyStore(jdbcTemplate, ttl, abandonedAfter, maxEntries);
+    }
+
+    @Bean
+    public IdempotencyFilter idempotencyFilter(IdempotencyStore idempotencyStore,
+                                               @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver) {
+        return new IdempotencyFilter(idempotencyStore, handlerExceptionResolver);
+    }
+}
@@ -0,0 +1,27 @@
+package com.sms.config;
+
+import com.sms.metrics.QueryCountFilter;
+import com.sms.metrics.QueryCountInspector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-request DB query counts. Method timings come from {@link com.sms.metrics.MethodMetricsAspect};
+ * percentiles and histograms for both are configured under management.metrics.distribution.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+    }
+
+    @Bean
+    public QueryCountFilter queryCountFilter(MeterRegistry meterRegistry) {
+        return new QueryCountFilter(meterRegistry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.sms.config;
+
+import com.sms.outbox.ApplicationEventOutboxSink;
+import com.sms.outbox.FileOutboxSink;
+import com.sms.outbox.HttpOutboxSink;
+import com.sms.outbox.OutboxRelay;
+import com.sms.outbox.OutboxSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Relay of the enrollment outbox. sms.outbox.sink picks where the events go: event (default,
+ * in-process listeners), file (NDJSON) or http (a JSON array POSTed per batch).
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "sms.outbox.sink", havingValue = "event", matchIfMissing = true)
+    public OutboxSink applicationEventOutboxSink(ApplicationEventPublisher eventPublisher) {
+        return new ApplicationEventOutboxSink(eventPublisher);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "sms.outbox.sink", havingValue = "file")
+    public OutboxSink fileOutboxSink(@Value("${sms.outbox.file}") Path file, JsonMapper jsonMapper) {
+        return new FileOutboxSink(file, jsonMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "sms.outbox.sink", havingValue = "http")
+    public OutboxSink httpOutboxSink(@Value("${sms.outbox.http-url}") URI uri,
+                                     @Value("${sms.outbox.http-timeout}") Duration timeout,
+                                     JsonMapper jsonMapper) {
+        return new HttpOutboxSink(uri, timeout, jsonMapper);
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(JdbcTemplate jdbcTemplate, OutboxSink outboxSink,
+                                   @Value("${sms.outbox.relay-interval}") Duration interval,
+                                   @Value("${sms.outbox.relay-lease}") Duration lease) {
+        return new OutboxRelay(jdbcTemplate, outboxSink, interval, lease);
+    }
+}
@@ -0,0 +1,79 @@
+package com.sms.config;
+
+import com.sms.datasource.ReplicaLagMonitor;
+import com.sms.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Active when sms.datasource.replicas lists at least one replica. spring.datasource then becomes
+ * the primary pool, each replica gets a read-only pool of the same size, and the DataSource
+ * everything else uses routes between them (see {@link ReplicaRoutingDataSource}). Without
+ * replicas Boot's single pool is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sms.datasource.replicas[0].url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                               Environment environment,
+                                               @Value("${sms.datasource.replica.max-lag}") Duration maxLag,
+                                               @Value("${sms.datasource.replica.check-interval}") Duration checkInterval,
+                                               MeterRegistry meterRegistry) {
+        List<DataSourceProperties> replicaProperties = Binder.get(environment)
+                .bind("sms.datasource.replicas", Bindable.listOf(DataSourceProperties.class))
+                .orElse(List.of());
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            HikariDataSource replica = replicaProperties.get(i).initializeDataSourceBuilder()
+                    .type(HikariDataSource.class).build();
+            replica.setPoolName("replica-" + i);
+            replica.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            replica.setMinimumIdle(primaryDataSource.getMinimumIdle());
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primaryDataSource, replicas, maxLag, checkInterval);
+        replicas.keySet().forEach(name -> Gauge.builder("sms.db.replica.lag", monitor, m -> m.getLagMillis(name))
+                .description("Replication lag at the last heartbeat check in milliseconds, -1 when unknown")
+                .tag("replica", name)
+                .register(meterRegistry));
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaLagMonitor));
+    }
+}
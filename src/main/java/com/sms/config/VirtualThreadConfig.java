@@ -0,0 +1,40 @@
+package com.sms.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+
+/**
+ * Active when spring.threads.virtual.enabled=true. Boot then serves requests, and so runs the
+ * service layer, on virtual threads; this adds the concurrency guard in front of the pool. The
+ * guard leaves sms.db.reserved-connections of the pool to background work it does not cover.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public ConnectionPoolGuardFilter connectionPoolGuardFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size}") int maximumPoolSize,
+            @Value("${sms.db.reserved-connections}") int reservedConnections,
+            @Value("${sms.db.acquire-timeout}") Duration acquireTimeout,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver,
+            MeterRegistry meterRegistry) {
+        // never below one slot, or a small pool would turn every request away
+        int maxConcurrentRequests = Math.max(1, maximumPoolSize - reservedConnections);
+        ConnectionPoolGuardFilter filter = new ConnectionPoolGuardFilter(maxConcurrentRequests, acquireTimeout,
+                handlerExceptionResolver);
+        Gauge.builder("sms.db.guard.available", filter, ConnectionPoolGuardFilter::getAvailablePermits)
+                .description("Free request slots in front of the connection pool")
+                .register(meterRegistry);
+        return filter;
+    }
+}
@@ -10,4 +10,24 @@ public class SMSConstants {
     public static final String  MESSAGE_417_UPDATE= "Update operation failed. Please try again or contact Dev team";
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
 
+    public static final int  DEFAULT_PAGE_LIMIT = 50;
+    public static final int  MAX_PAGE_LIMIT = 500;
+
+    public static final int  DEACTIVATION_CHUNK_SIZE = 1000;
+    public static final int  WAITLIST_PROMOTION_BATCH_SIZE = 100;
+
+    public static final int  DEFAULT_SEARCH_LIMIT = 20;
+    public static final int  MAX_SEARCH_LIMIT = 100;
+    public static final int  SEARCH_INDEX_BATCH_SIZE = 1000;
+
+    public static final int  OUTBOX_RELAY_BATCH_SIZE = 500;
+
+    public static final int  DEFAULT_SUGGEST_LIMIT = 10;
+    public static final int  MAX_SUGGEST_LIMIT = 50;
+    public static final int  TYPEAHEAD_SCAN_LIMIT = 2000;
+    public static final int  TYPEAHEAD_MAX_TERM_LENGTH = 32;
+
+    public static final String  COURSE_CACHE = "courses";
+    public static final String  ACTIVE_COURSES_CACHE = "activeCourses";
+
 }
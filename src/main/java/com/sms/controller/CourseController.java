@@ -1,12 +1,26 @@
 package com.sms.controller;
 
+import com.sms.dto.BulkEnrollmentRequestDTO;
+import com.sms.dto.BulkEnrollmentResultDTO;
 import com.sms.dto.CourseDTO;
+import com.sms.dto.CourseRosterEntryDTO;
+import com.sms.dto.FieldSelectionDTO;
+import com.sms.dto.PageResponseDTO;
+import com.sms.dto.ResourceVersionDTO;
+import com.sms.dto.WaitlistEntryDTO;
+import com.sms.mapper.FieldSelectionMapper;
+import com.sms.mapper.VersionMapper;
 import com.sms.service.ICourseService;
+import com.sms.service.IStudentEnrollmentService;
+import com.sms.service.IWaitlistService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.List;
 
@@ -16,15 +30,58 @@ import java.util.List;
 public class CourseController {
 
     private final ICourseService courseService;
+    private final IStudentEnrollmentService studentEnrollmentService;
+    private final IWaitlistService waitlistService;
+    private final JsonMapper jsonMapper;
+
+    // either paging parameter selects the page handler below, so ?after alone can't return the whole catalog
+    @GetMapping(params = {"!after", "!limit"})
+    public ResponseEntity<List<CourseDTO>> getAllCourses(WebRequest webRequest) {
+        // polling clients get a 304 from the cached catalog without it being mapped and serialized again
+        ResourceVersionDTO version = courseService.getCatalogVersion();
+        if (version != null && webRequest.checkNotModified(version.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(courseService.getAllCourses());
+    }
 
     @GetMapping
-    public ResponseEntity<List<CourseDTO>> getAllCourses() {
-        return ResponseEntity.ok(courseService.getAllCourses());
+    public ResponseEntity<PageResponseDTO<CourseDTO>> getCoursesPage(
+            @RequestParam(required = false) Integer after, @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(courseService.getCoursesPage(after, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CourseDTO> getCourseById(@PathVariable Integer id) {
-        return ResponseEntity.ok(courseService.getCourseById(id));
+    public ResponseEntity<?> getCourseById(@PathVariable Integer id,
+            @RequestParam(required = false) List<String> fields, @RequestParam(required = false) List<String> expand,
+            WebRequest webRequest) {
+        FieldSelectionDTO selection = FieldSelectionDTO.forCourses(fields, expand);
+        if (selection.isEnrollments()) {
+            // the course's validators don't cover the names of its students, so the roster is always sent
+            return ResponseEntity.ok(selected(courseService.getCourseById(id, selection), selection));
+        }
+        ResourceVersionDTO version = courseService.getCourseVersion(id);
+        if (version != null) {
+            version = VersionMapper.mapToResourceVersion(version, selection, FieldSelectionDTO.ALL_COURSE_FIELDS);
+        }
+        if (version != null && webRequest.checkNotModified(version.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(selected(courseService.getCourseById(id, selection), selection));
+    }
+
+    @GetMapping("/{id}/students")
+    public ResponseEntity<PageResponseDTO<CourseRosterEntryDTO>> getCourseRoster(
+            @PathVariable Integer id, @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(courseService.getCourseRoster(id, after, limit));
+    }
+
+    @GetMapping("/{id}/waitlist")
+    public ResponseEntity<PageResponseDTO<WaitlistEntryDTO>> getWaitlist(
+            @PathVariable Integer id, @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(waitlistService.getWaitlist(id, after, limit));
     }
 
     @PostMapping
@@ -38,9 +95,20 @@ public class CourseController {
         return ResponseEntity.ok(courseService.updateCourse(id, request));
     }
 
+    @PostMapping("/{id}/enrollments")
+    public ResponseEntity<BulkEnrollmentResultDTO> enrollStudents(
+            @PathVariable Integer id, @Valid @RequestBody BulkEnrollmentRequestDTO request) {
+        return ResponseEntity.ok(studentEnrollmentService.enrollStudents(id, request.getStudentIds()));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCourse(@PathVariable Integer id) {
         courseService.deleteCourse(id);
         return ResponseEntity.noContent().build();
     }
+
+    private Object selected(CourseDTO course, FieldSelectionDTO selection) {
+        return selection.getFields() == null ? course
+                : FieldSelectionMapper.mapToSelectedFields(jsonMapper, course, selection, "enrolledStudents", "enrolledStudentsNextCursor");
+    }
 }
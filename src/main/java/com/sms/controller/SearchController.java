@@ -0,0 +1,31 @@
+package com.sms.controller;
+
+import com.sms.dto.SearchHitDTO;
+import com.sms.dto.StudentSuggestionDTO;
+import com.sms.service.ISearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final ISearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<List<SearchHitDTO>> search(
+            @RequestParam String q, @RequestParam(required = false) SearchHitDTO.Type type,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.search(q, type, limit));
+    }
+
+    @GetMapping("/students/suggest")
+    public ResponseEntity<List<StudentSuggestionDTO>> suggestStudents(
+            @RequestParam String q, @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.suggestStudents(q, limit));
+    }
+}
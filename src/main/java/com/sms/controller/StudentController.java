@@ -1,14 +1,34 @@
 package com.sms.controller;
 
 import com.sms.constants.SMSConstants;
+import com.sms.dto.BulkDeactivationJobDTO;
+import com.sms.dto.BulkDeactivationRequestDTO;
+import com.sms.dto.BulkImportResultDTO;
+import com.sms.dto.FieldSelectionDTO;
+import com.sms.dto.PageResponseDTO;
+import com.sms.dto.ResourceVersionDTO;
 import com.sms.dto.ResponseDTO;
 import com.sms.dto.StudentDTO;
+import com.sms.dto.WaitlistEntryDTO;
+import com.sms.mapper.FieldSelectionMapper;
+import com.sms.mapper.StudentCsvMapper;
+import com.sms.mapper.VersionMapper;
+import com.sms.service.IStudentDeactivationService;
 import com.sms.service.IStudentService;
+import com.sms.service.IWaitlistService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.List;
 
@@ -18,15 +38,61 @@ import java.util.List;
 public class StudentController {
 
     private final IStudentService studentService;
+    private final IStudentDeactivationService deactivationService;
+    private final IWaitlistService waitlistService;
+    private final JsonMapper jsonMapper;
+
+    // ?fields=id,firstName,lastName narrows the students to those properties and leaves their courses
+    // out unless ?expand=enrollments is also given; without either they come complete
+    // either paging parameter selects the page handler below, so ?after alone can't return every student
+    @GetMapping(params = {"!after", "!limit"})
+    public ResponseEntity<List<?>> getAllStudents(
+            @RequestParam(required = false) List<String> fields, @RequestParam(required = false) List<String> expand) {
+        FieldSelectionDTO selection = FieldSelectionDTO.forStudents(fields, expand);
+        return ResponseEntity.ok(selected(studentService.getAllStudents(selection), selection));
+    }
 
     @GetMapping
-    public ResponseEntity<List<StudentDTO>> getAllStudents() {
-        return ResponseEntity.ok(studentService.getAllStudents());
+    public ResponseEntity<PageResponseDTO<?>> getStudentsPage(
+            @RequestParam(required = false) Integer after, @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) List<String> fields, @RequestParam(required = false) List<String> expand) {
+        FieldSelectionDTO selection = FieldSelectionDTO.forStudents(fields, expand);
+        PageResponseDTO<StudentDTO> page = studentService.getStudentsPage(after, limit, selection);
+        return ResponseEntity.ok(new PageResponseDTO<>(selected(page.getItems(), selection), page.getNextCursor()));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportStudents() {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = jsonMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out)) {
+                studentService.exportStudents(writer::write);
+                writer.flush();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<StudentDTO> getStudentById(@PathVariable Integer id) {
-        return ResponseEntity.ok(studentService.getStudentById(id));
+    public ResponseEntity<?> getStudentById(@PathVariable Integer id,
+            @RequestParam(required = false) List<String> fields, @RequestParam(required = false) List<String> expand,
+            WebRequest webRequest) {
+        FieldSelectionDTO selection = FieldSelectionDTO.forStudents(fields, expand);
+        // answered from the validators alone when the client's copy is current, before the student is loaded
+        ResourceVersionDTO version = studentService.getStudentVersion(id);
+        if (version != null) {
+            version = VersionMapper.mapToResourceVersion(version, selection, FieldSelectionDTO.ALL_STUDENT_FIELDS);
+        }
+        if (version != null && (version.getLastModified() == null
+                ? webRequest.checkNotModified(version.getETag())
+                : webRequest.checkNotModified(version.getETag(), version.getLastModified()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+        }
+        StudentDTO student = studentService.getStudentById(id, selection);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(selection.getFields() == null ? student
+                : FieldSelectionMapper.mapToSelectedFields(jsonMapper, student, selection, "enrolledCourses"));
     }
 
     @PostMapping
@@ -37,6 +103,19 @@ public class StudentController {
                 .body(new ResponseDTO(SMSConstants.STATUS_201, SMSConstants.MESSAGE_201));
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResultDTO> importStudents(@RequestBody List<StudentDTO> request) {
+        return ResponseEntity.ok(studentService.importStudents(request));
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportResultDTO> importStudentsCsv(@RequestBody String csv) {
+        List<StudentCsvMapper.Row> rows = StudentCsvMapper.mapToRows(csv);
+        // results are numbered by the line each record starts on, so they can be found in the file
+        return ResponseEntity.ok(studentService.importStudents(rows.stream().map(StudentCsvMapper.Row::student).toList(),
+                rows.stream().map(StudentCsvMapper.Row::line).toList()));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<StudentDTO> updateStudent(
             @PathVariable Integer id, @Valid @RequestBody StudentDTO request) {
@@ -52,6 +131,20 @@ public class StudentController {
 
     }
 
+    @PostMapping("/deactivations")
+    public ResponseEntity<BulkDeactivationJobDTO> deactivateStudents(@Valid @RequestBody BulkDeactivationRequestDTO request) {
+        BulkDeactivationJobDTO job = deactivationService.startDeactivation(request);
+        return ResponseEntity
+                .accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{jobId}").buildAndExpand(job.getJobId()).toUri())
+                .body(job);
+    }
+
+    @GetMapping("/deactivations/{jobId}")
+    public ResponseEntity<BulkDeactivationJobDTO> getDeactivationJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(deactivationService.getDeactivationJob(jobId));
+    }
+
     @PostMapping("/{studentId}/courses/{courseId}")
     public ResponseEntity<StudentDTO> enrollInCourse(
             @PathVariable Integer studentId, @PathVariable Integer courseId) {
@@ -63,4 +156,26 @@ public class StudentController {
             @PathVariable Integer studentId, @PathVariable Integer courseId) {
         return ResponseEntity.ok(studentService.unenrollFromCourse(studentId, courseId));
     }
+
+    @PostMapping("/{studentId}/waitlist/{courseId}")
+    public ResponseEntity<WaitlistEntryDTO> joinWaitlist(
+            @PathVariable Integer studentId, @PathVariable Integer courseId) {
+        return ResponseEntity.ok(waitlistService.joinWaitlist(studentId, courseId));
+    }
+
+    @DeleteMapping("/{studentId}/waitlist/{courseId}")
+    public ResponseEntity<Void> leaveWaitlist(
+            @PathVariable Integer studentId, @PathVariable Integer courseId) {
+        waitlistService.leaveWaitlist(studentId, courseId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private List<?> selected(List<StudentDTO> students, FieldSelectionDTO selection) {
+        if (selection.getFields() == null) {
+            return students;
+        }
+        return students.stream()
+                .map(student -> FieldSelectionMapper.mapToSelectedFields(jsonMapper, student, selection, "enrolledCourses"))
+                .toList();
+    }
 }
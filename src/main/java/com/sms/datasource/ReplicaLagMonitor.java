@@ -0,0 +1,139 @@
+package com.sms.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures how far each replica is behind the primary from a heartbeat row: every check writes
+ * the current time to sms.replica_heartbeat on the primary and reads it back from each replica,
+ * so the age of a replica's copy is its replication lag, whatever the database reports about
+ * itself. Replicas within the limit take the replica reads in turn; a replica that is further
+ * behind, or can't be reached, gets none until it catches up, and with none left they go to the
+ * primary. Until the first check has run every read goes to the primary.
+ * <p>
+ * Owns the replica pools and closes them on shutdown.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements DisposableBean {
+
+    private static final String UPDATE_BEAT = "UPDATE sms.replica_heartbeat SET beat_at_millis = ? WHERE heartbeat_id = 1";
+    private static final String INSERT_BEAT = "INSERT INTO sms.replica_heartbeat (heartbeat_id, beat_at_millis) VALUES (1, ?)";
+    private static final String SELECT_BEAT = "SELECT beat_at_millis FROM sms.replica_heartbeat WHERE heartbeat_id = 1";
+
+    private final JdbcTemplate primary;
+    private final Map<String, DataSource> replicas;
+    private final Map<String, JdbcTemplate> replicaTemplates = new LinkedHashMap<>();
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final Map<String, Long> lagMillis = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("replica-lag").daemon().factory());
+    private volatile List<String> inSync = List.of();
+
+    public ReplicaLagMonitor(DataSource primary, Map<String, DataSource> replicas, Duration maxLag, Duration checkInterval) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        replicas.forEach((name, dataSource) -> replicaTemplates.put(name, new JdbcTemplate(dataSource)));
+    }
+
+    // after startup, so Hibernate has created the heartbeat table where it manages the schema
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * The replica for the next replica read, or null when none is within the lag limit.
+     */
+    public @Nullable String nextReplica() {
+        List<String> candidates = inSync;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * Lag of the replica at its last check, -1 before the first check or when it couldn't be read.
+     */
+    public long getLagMillis(String replica) {
+        return lagMillis.getOrDefault(replica, -1L);
+    }
+
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update(UPDATE_BEAT, now) == 0) {
+                primary.update(INSERT_BEAT, now);
+            }
+        } catch (DuplicateKeyException ex) {
+            // another instance wrote the first beat at the same moment
+        } catch (DataAccessException ex) {
+            // the replicas' copies keep ageing, so they drop out once the limit has passed
+            log.warn("Could not write the replica heartbeat on the primary: {}", ex.getMessage());
+        }
+
+        List<String> healthy = new ArrayList<>();
+        replicaTemplates.forEach((name, replica) -> {
+            long lag;
+            try {
+                List<Long> beats = replica.queryForList(SELECT_BEAT, Long.class);
+                lag = beats.isEmpty() ? -1 : Math.max(0, System.currentTimeMillis() - beats.getFirst());
+            } catch (DataAccessException ex) {
+                log.debug("Replica {} could not be read: {}", name, ex.getMessage());
+                lag = -1;
+            }
+            lagMillis.put(name, lag);
+            if (lag >= 0 && lag <= maxLag.toMillis()) {
+                healthy.add(name);
+            }
+        });
+
+        List<String> previous = inSync;
+        inSync = List.copyOf(healthy);
+        for (String name : replicaTemplates.keySet()) {
+            if (previous.contains(name) && !healthy.contains(name)) {
+                log.warn("Replica {} left the read rotation, lag {} against a limit of {}",
+                        name, lagMillis.get(name) < 0 ? "unknown" : lagMillis.get(name) + " ms", maxLag);
+            } else if (!previous.contains(name) && healthy.contains(name)) {
+                log.info("Replica {} joined the read rotation, lag {} ms", name, lagMillis.get(name));
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        scheduler.shutdownNow();
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.sms.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets the read-only transactions of a method run on a read replica when any are configured.
+ * Only for reads that can show data up to sms.datasource.replica.max-lag old: nothing that is
+ * cached, feeds a validator, or has to see a write the caller just made.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+}
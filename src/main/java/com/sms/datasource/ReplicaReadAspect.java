@@ -0,0 +1,26 @@
+package com.sms.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks the thread for the duration of a {@link ReplicaRead} method. The connection is only taken
+ * at the first statement, so it doesn't matter whether this runs inside or outside the
+ * transaction advice.
+ */
+@Aspect
+@Component
+public class ReplicaReadAspect {
+
+    @Around("@annotation(com.sms.datasource.ReplicaRead)")
+    public Object allowReplicaReads(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = ReplicaRoutingDataSource.allowReplicaReads(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingDataSource.allowReplicaReads(previous);
+        }
+    }
+}
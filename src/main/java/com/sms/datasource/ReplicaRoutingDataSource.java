@@ -0,0 +1,52 @@
+package com.sms.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends the read-only transactions of {@link ReplicaRead} methods to a replica that is within the
+ * lag limit, round robin, and everything else to the primary. The key is looked up when a
+ * connection is taken, so this has to sit behind a LazyConnectionDataSourceProxy: by the first
+ * statement the transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> REPLICA_READS = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        Map<Object, Object> targets = new HashMap<>(lagMonitor.getReplicas());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!Boolean.TRUE.equals(REPLICA_READS.get()) || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        String replica = lagMonitor.nextReplica();
+        return replica == null ? PRIMARY : replica;
+    }
+
+    // returns the previous setting so nested calls can put it back
+    static boolean allowReplicaReads(boolean allow) {
+        boolean previous = Boolean.TRUE.equals(REPLICA_READS.get());
+        if (allow) {
+            REPLICA_READS.set(true);
+        } else {
+            REPLICA_READS.remove();
+        }
+        return previous;
+    }
+}
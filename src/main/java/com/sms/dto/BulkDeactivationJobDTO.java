@@ -0,0 +1,31 @@
+package com.sms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data @AllArgsConstructor
+public class BulkDeactivationJobDTO {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private String jobId;
+
+    private Status status;
+
+    // students selected when the job started
+    private int total;
+
+    private int processed;
+
+    // processed students that were still active
+    private int deactivated;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private String error;
+
+}
@@ -0,0 +1,24 @@
+package com.sms.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+public class BulkDeactivationRequestDTO {
+
+    private List<Integer> studentIds;
+
+    // deactivates every active student whose enrollment date is before this day
+    private LocalDate enrolledBefore;
+
+    @AssertTrue(message = "Provide either studentIds or enrolledBefore")
+    private boolean isSingleSelector() {
+        return (studentIds != null && !studentIds.isEmpty()) != (enrolledBefore != null);
+    }
+
+}
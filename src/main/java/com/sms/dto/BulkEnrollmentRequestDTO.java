@@ -0,0 +1,16 @@
+package com.sms.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+public class BulkEnrollmentRequestDTO {
+
+    @NotEmpty(message = "Student ids cannot be empty")
+    private List<Integer> studentIds;
+
+}
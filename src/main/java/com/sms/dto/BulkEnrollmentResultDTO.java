@@ -0,0 +1,23 @@
+package com.sms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data @AllArgsConstructor
+public class BulkEnrollmentResultDTO {
+
+    private Integer courseId;
+
+    private List<Integer> enrolled;
+
+    private List<Integer> alreadyEnrolled;
+
+    // ids that are unknown or belong to inactive students
+    private List<Integer> notFound;
+
+    // active students left out because the course ran out of seats, in request order
+    private List<Integer> courseFull;
+
+}
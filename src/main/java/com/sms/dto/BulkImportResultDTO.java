@@ -0,0 +1,19 @@
+package com.sms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data @AllArgsConstructor
+public class BulkImportResultDTO {
+
+    private int total;
+
+    private int created;
+
+    private int rejected;
+
+    private List<BulkRowResultDTO> rows;
+
+}
@@ -0,0 +1,22 @@
+package com.sms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data @AllArgsConstructor
+public class BulkRowResultDTO {
+
+    public enum Status {
+        CREATED, REJECTED
+    }
+
+    // 1-based position of the row in a JSON request, the line it starts on in a CSV upload
+    private int row;
+
+    private Status status;
+
+    private Integer id;
+
+    private String message;
+
+}
@@ -1,6 +1,8 @@
 package com.sms.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
 import lombok.*;
 
 import java.util.List;
@@ -21,5 +23,17 @@ public class CourseDTO{
         @NotBlank(message = "Course description cannot be empty")
         private String description;
 
+        // null leaves the course without a seat limit
+        @Positive(message = "Course capacity must be positive")
+        private Integer capacity;
+
         private List<StudentDTO> enrolledStudents;
+
+        // set when ?expand=enrollments stopped at a full page: pass as ?after= to /api/course/{id}/students
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Integer enrolledStudentsNextCursor;
+
+        // headcount from course.enrolled_count, set by GET /api/course/{id} and the paged list;
+        // the students themselves are paged from /api/course/{id}/students
+        private Integer enrolledCount;
 }
@@ -0,0 +1,21 @@
+package com.sms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data @AllArgsConstructor
+public class CourseRosterEntryDTO {
+
+    private Integer studentId;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private LocalDate enrollmentDate;
+
+}
@@ -0,0 +1,26 @@
+package com.sms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data @AllArgsConstructor
+public class EnrollmentEventDTO {
+
+    public enum Type {
+        ENROLLED, UNENROLLED
+    }
+
+    // unique per event, so consumers can drop redeliveries; ids follow insert order, not commit order
+    private Long eventId;
+
+    private Type type;
+
+    private Integer studentId;
+
+    private Integer courseId;
+
+    private LocalDateTime occurredAt;
+
+}
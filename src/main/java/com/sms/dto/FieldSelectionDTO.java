@@ -0,0 +1,83 @@
+package com.sms.dto;
+
+import com.sms.exception.InvalidFieldSelectionException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * What a GET asked for through {@code ?fields=} and {@code ?expand=enrollments}. Without either
+ * the endpoint answers as it always has; {@code fields} narrows the response to the listed
+ * properties, and the nested enrollments are then only read from the database when expanded.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class FieldSelectionDTO {
+
+    public static final String EXPAND_ENROLLMENTS = "enrollments";
+
+    private static final Set<String> STUDENT_FIELDS =
+            Set.of("id", "firstName", "lastName", "email", "phoneNumber", "address");
+    private static final Set<String> COURSE_FIELDS =
+            Set.of("id", "name", "credits", "description", "capacity", "enrolledCount");
+
+    // students have always come with their courses, courses no longer come with their students
+    public static final FieldSelectionDTO ALL_STUDENT_FIELDS = new FieldSelectionDTO(null, true);
+    public static final FieldSelectionDTO ALL_COURSE_FIELDS = new FieldSelectionDTO(null, false);
+
+    // null selects every property
+    private final @Nullable Set<String> fields;
+
+    private final boolean enrollments;
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    // the same for every spelling of one selection (order, repeats, blanks), so it can key a validator
+    public String canonical() {
+        return (fields == null ? "*" : String.join(",", new TreeSet<>(fields)))
+                + (enrollments ? ";" + EXPAND_ENROLLMENTS : "");
+    }
+
+    public static FieldSelectionDTO forStudents(@Nullable List<String> fields, @Nullable List<String> expand) {
+        return of(fields, expand, STUDENT_FIELDS, ALL_STUDENT_FIELDS);
+    }
+
+    public static FieldSelectionDTO forCourses(@Nullable List<String> fields, @Nullable List<String> expand) {
+        return of(fields, expand, COURSE_FIELDS, ALL_COURSE_FIELDS);
+    }
+
+    private static FieldSelectionDTO of(@Nullable List<String> fields, @Nullable List<String> expand,
+                                        Set<String> known, FieldSelectionDTO defaults) {
+        if (fields == null && expand == null) {
+            return defaults;
+        }
+        Set<String> selected = fields == null ? null : validated(fields, known, "field");
+        Set<String> expanded = expand == null ? Set.of() : validated(expand, Set.of(EXPAND_ENROLLMENTS), "expansion");
+        return new FieldSelectionDTO(selected, expanded.contains(EXPAND_ENROLLMENTS)
+                || (fields == null && defaults.isEnrollments()));
+    }
+
+    private static Set<String> validated(Collection<String> names, Set<String> known, String kind) {
+        Set<String> selected = new HashSet<>();
+        for (String name : names) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!known.contains(trimmed)) {
+                throw new InvalidFieldSelectionException(kind, trimmed, known);
+            }
+            selected.add(trimmed);
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,16 @@
+package com.sms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data @AllArgsConstructor
+public class PageResponseDTO<T> {
+
+    private List<T> items;
+
+    // Id to pass as ?after= for the next page, null when this is the last page
+    private Integer nextCursor;
+
+}
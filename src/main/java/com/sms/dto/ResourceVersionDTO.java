@@ -0,0 +1,16 @@
+package com.sms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.jspecify.annotations.Nullable;
+
+@Data @AllArgsConstructor
+public class ResourceVersionDTO {
+
+    // weak validator (W/"..."), ready for the ETag header
+    private String eTag;
+
+    // epoch millis for Last-Modified, null where a timestamp can't cover every change to the body
+    private @Nullable Long lastModified;
+
+}
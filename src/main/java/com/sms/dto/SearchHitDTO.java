@@ -0,0 +1,25 @@
+package com.sms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data @AllArgsConstructor
+public class SearchHitDTO {
+
+    public enum Type {
+        STUDENT, COURSE
+    }
+
+    private Type type;
+
+    private Integer id;
+
+    // student full name or course name
+    private String title;
+
+    // student email or course description
+    private String detail;
+
+    private Float score;
+
+}
@@ -0,0 +1,17 @@
+package com.sms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data @AllArgsConstructor
+public class StudentSuggestionDTO {
+
+    private Integer id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+}
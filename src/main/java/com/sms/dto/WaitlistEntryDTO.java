@@ -0,0 +1,30 @@
+package com.sms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data @AllArgsConstructor
+public class WaitlistEntryDTO {
+
+    public enum Status {
+        WAITLISTED, ENROLLED
+    }
+
+    private Integer studentId;
+
+    private String firstName;
+
+    private String lastName;
+
+    private Integer courseId;
+
+    private Status status;
+
+    // 1-based place in the course's queue, null when the student got a seat instead
+    private Long position;
+
+    private LocalDateTime joinedAt;
+
+}
@@ -3,6 +3,7 @@ package com.sms.entity;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -11,7 +12,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "course", schema = "sms")
+@Table(
+    name = "course",
+    schema = "sms",
+    indexes = {
+        @Index(name = "idx_course_status_id", columnList = "status, course_id")
+    }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -38,6 +45,17 @@ public class Course {
     @Column(name = "status", length = 10)
     private Status status = Status.Active;
 
+    // Maintained only by the relative updates in CourseRepository, never written from the entity,
+    // so saving a course that was loaded earlier can't overwrite concurrent enrollments
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "enrolled_count", nullable = false, insertable = false, updatable = false)
+    private Integer enrolledCount = 0;
+
+    // Seat limit checked against enrolledCount; null means the course takes any number of students
+    @Column(name = "capacity")
+    private Integer capacity;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
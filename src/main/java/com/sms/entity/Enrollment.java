@@ -13,6 +13,9 @@ import java.time.LocalDateTime;
 @Table(
     name = "enrollments",
     schema = "sms",
+    indexes = {
+        @Index(name = "idx_enrollment_course_student", columnList = "course_id, student_id")
+    },
     uniqueConstraints = {
         @UniqueConstraint(
             name = "uq_student_course",
@@ -0,0 +1,38 @@
+package com.sms.entity;
+
+import com.sms.dto.EnrollmentEventDTO;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read and written only through EnrollmentOutbox and OutboxRelay; mapped so the table is part of
+ * the schema Hibernate validates and generates.
+ */
+@Entity
+@Table(name = "enrollment_outbox", schema = "sms")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 20)
+    private EnrollmentEventDTO.Type eventType;
+
+    @Column(name = "student_id", nullable = false)
+    private Integer studentId;
+
+    @Column(name = "course_id", nullable = false)
+    private Integer courseId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
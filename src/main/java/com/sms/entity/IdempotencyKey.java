@@ -0,0 +1,51 @@
+package com.sms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read and written only through JdbcIdempotencyStore; mapped so the table is part of the schema
+ * Hibernate validates and generates.
+ */
+@Entity
+@Table(
+    name = "idempotency_key",
+    schema = "sms",
+    indexes = {
+        @Index(name = "idx_idempotency_created", columnList = "created_at")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+
+    // SHA-256 hex of method, path and the client's key
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    // SHA-256 hex of the request body, a retry with another body is refused
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    // 0 while the first request is still running
+    @Column(name = "status", nullable = false)
+    private Integer status;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "location", length = 255)
+    private String location;
+
+    @Lob
+    @Column(name = "body", length = 16_777_215)
+    private byte[] body;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
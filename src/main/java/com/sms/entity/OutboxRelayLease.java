@@ -0,0 +1,31 @@
+package com.sms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read and written only through OutboxRelay; mapped so the table is part of the schema
+ * Hibernate validates and generates.
+ */
+@Entity
+@Table(name = "outbox_relay_lease", schema = "sms")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxRelayLease {
+
+    // a single row, id 1
+    @Id
+    @Column(name = "lease_id")
+    private Integer leaseId;
+
+    // the relay instance that delivers events until leased_until
+    @Column(name = "owner", nullable = false, length = 36)
+    private String owner;
+
+    @Column(name = "leased_until", nullable = false)
+    private LocalDateTime leasedUntil;
+}
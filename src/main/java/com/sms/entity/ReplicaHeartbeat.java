@@ -0,0 +1,26 @@
+package com.sms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Read and written only through ReplicaLagMonitor; mapped so the table is part of the schema
+ * Hibernate validates and generates.
+ */
+@Entity
+@Table(name = "replica_heartbeat", schema = "sms")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicaHeartbeat {
+
+    // a single row, id 1
+    @Id
+    @Column(name = "heartbeat_id")
+    private Integer heartbeatId;
+
+    // epoch millis of the last beat written on the primary
+    @Column(name = "beat_at_millis", nullable = false)
+    private Long beatAtMillis;
+}
@@ -12,7 +12,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "student", schema = "sms")
+@Table(
+    name = "student",
+    schema = "sms",
+    indexes = {
+        @Index(name = "idx_student_status_id", columnList = "status, student_id"),
+        @Index(name = "idx_student_status_enrolled", columnList = "status, enrollment_date")
+    }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -73,6 +80,14 @@ public class Student {
     @OneToMany(mappedBy = "student", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<Enrollment> enrollments = new ArrayList<>(); ;
 
+    // Hibernate writes every column on insert, so the column default would be overwritten with null
+    @PrePersist
+    public void prePersist() {
+        if (this.enrollmentDate == null) {
+            this.enrollmentDate = LocalDate.now();
+        }
+    }
+
     public enum Gender {
         M, F, O
     }
@@ -0,0 +1,50 @@
+package com.sms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+    name = "waitlist",
+    schema = "sms",
+    indexes = {
+        // queue order per course: the head, a page and a student's position are all range scans on this
+        @Index(name = "idx_waitlist_course_id", columnList = "course_id, waitlist_id")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(
+            name = "uq_waitlist_student_course",
+            columnNames = {"student_id", "course_id"}
+        )
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntry {
+
+    // Identity order is the queue order
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "waitlist_id")
+    private Integer waitlistId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false,
+                foreignKey = @ForeignKey(name = "fk_waitlist_student"))
+    private Student student;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", nullable = false,
+                foreignKey = @ForeignKey(name = "fk_waitlist_course"))
+    private Course course;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
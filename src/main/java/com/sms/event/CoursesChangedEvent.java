@@ -0,0 +1,17 @@
+package com.sms.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published inside a transaction that created, edited or deactivated courses. Listeners see it
+ * only after that transaction commits, and read the rows back themselves.
+ *
+ * @param courseIds the courses whose searchable columns or status may have changed
+ */
+public record CoursesChangedEvent(Set<Integer> courseIds) {
+
+    public static CoursesChangedEvent of(Collection<Integer> courseIds) {
+        return new CoursesChangedEvent(Set.copyOf(courseIds));
+    }
+}
@@ -0,0 +1,13 @@
+package com.sms.event;
+
+import com.sms.dto.EnrollmentEventDTO;
+
+import java.util.List;
+
+/**
+ * One batch of committed enrollment changes, published by the in-process outbox sink from the
+ * relay's transaction. A listener that throws leaves the batch in the outbox, and the whole batch
+ * is delivered again on the next relay run.
+ */
+public record EnrollmentEventsRelayedEvent(List<EnrollmentEventDTO> events) {
+}
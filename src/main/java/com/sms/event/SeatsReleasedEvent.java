@@ -0,0 +1,17 @@
+package com.sms.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published inside a transaction that freed seats or raised a capacity. Listeners see it only
+ * after that transaction commits.
+ *
+ * @param courseIds the courses that may now have room
+ */
+public record SeatsReleasedEvent(Set<Integer> courseIds) {
+
+    public static SeatsReleasedEvent of(Collection<Integer> courseIds) {
+        return new SeatsReleasedEvent(Set.copyOf(courseIds));
+    }
+}
@@ -0,0 +1,17 @@
+package com.sms.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published inside a transaction that created, edited or deactivated students. Listeners see it
+ * only after that transaction commits, and read the rows back themselves.
+ *
+ * @param studentIds the students whose searchable columns or status may have changed
+ */
+public record StudentsChangedEvent(Set<Integer> studentIds) {
+
+    public static StudentsChangedEvent of(Collection<Integer> studentIds) {
+        return new StudentsChangedEvent(Set.copyOf(studentIds));
+    }
+}
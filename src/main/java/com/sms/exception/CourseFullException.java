@@ -0,0 +1,13 @@
+package com.sms.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class CourseFullException extends RuntimeException {
+
+    public CourseFullException(Integer courseId) {
+        super(String.format("Course with courseId '%s' has no seats left", courseId));
+    }
+
+}
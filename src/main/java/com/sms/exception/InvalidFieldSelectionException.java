@@ -0,0 +1,16 @@
+package com.sms.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Collection;
+import java.util.TreeSet;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidFieldSelectionException extends RuntimeException {
+
+    public InvalidFieldSelectionException(String kind, String name, Collection<String> known) {
+        super(String.format("Unknown %s '%s', expected one of %s", kind, name, new TreeSet<>(known)));
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.sms.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class RequestInProgressException extends RuntimeException {
+
+    public RequestInProgressException() {
+        super("A request with this Idempotency-Key is still being processed. Please retry shortly");
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.sms.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(int maxConcurrentRequests) {
+        super(String.format("Server is busy, all %d database slots are in use. Please retry shortly", maxConcurrentRequests));
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.sms.idempotency;
+
+import com.sms.exception.IdempotencyKeyReusedException;
+import com.sms.exception.RequestInProgressException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Makes POST /api requests that carry an Idempotency-Key safe to retry. The first request with a
+ * key runs and its response is stored; a retry with the same key on the same path gets that
+ * response back without touching the service layer, and one that arrives while the first is still
+ * running gets a 409. Responses below 500 are kept, so a retry sees the same outcome, including a
+ * 404 or a full course; a 5xx frees the key so the retry runs again. The key is stored with a hash
+ * of the request body, and a request that reuses it with a different body gets a 422 instead of
+ * someone else's response.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyStore store;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public IdempotencyFilter(IdempotencyStore store, HandlerExceptionResolver handlerExceptionResolver) {
+        this.store = store;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/api/")
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = storeKey(request);
+        // the body is read up front to hash it, controllers then read the copy
+        CachedBodyRequestWrapper cached = new CachedBodyRequestWrapper(request);
+        String requestHash = sha256(cached.getBody());
+        IdempotentResponse previous = store.claim(key, requestHash);
+        if (previous != null) {
+            if (!previous.matches(requestHash)) {
+                handlerExceptionResolver.resolveException(request, response, null, new IdempotencyKeyReusedException());
+            } else if (previous.inProgress()) {
+                handlerExceptionResolver.resolveException(request, response, null, new RequestInProgressException());
+            } else {
+                replay(previous, response);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(cached, wrapper);
+            if (wrapper.getStatus() < 500) {
+                store.complete(key, new IdempotentResponse(requestHash, wrapper.getStatus(), wrapper.getContentType(),
+                        wrapper.getHeader(HttpHeaders.LOCATION), wrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.release(key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(IdempotentResponse previous, HttpServletResponse response) throws IOException {
+        response.setStatus(previous.status());
+        if (previous.contentType() != null) {
+            response.setContentType(previous.contentType());
+        }
+        if (previous.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, previous.location());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(previous.body().length);
+        response.getOutputStream().write(previous.body());
+    }
+
+    // scoped to method and path, and hashed so any client-chosen key fits the store's column
+    private static String storeKey(HttpServletRequest request) {
+        String scoped = request.getMethod() + ' ' + request.getRequestURI() + ' ' + request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        return sha256(scoped.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
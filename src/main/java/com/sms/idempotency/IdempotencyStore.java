@@ -0,0 +1,21 @@
+package com.sms.idempotency;
+
+import org.jspecify.annotations.Nullable;
+
+public interface IdempotencyStore {
+
+    /**
+     * Atomically claims the key for a new request with the given body hash.
+     *
+     * @return null when the caller now owns the key, otherwise what is stored under it: the
+     * finished response, or an {@link IdempotentResponse#inProgress} one while the first request runs
+     */
+    @Nullable IdempotentResponse claim(String key, String requestHash);
+
+    void complete(String key, IdempotentResponse response);
+
+    /**
+     * Gives the key up without a result, so a retry runs the request again.
+     */
+    void release(String key);
+}
@@ -0,0 +1,24 @@
+package com.sms.idempotency;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * What a request with an Idempotency-Key answered, kept so a retry gets the same answer, along
+ * with the SHA-256 of the request body it answered. Status 0 marks a key whose first request is
+ * still running.
+ */
+public record IdempotentResponse(String requestHash, int status, @Nullable String contentType,
+                                 @Nullable String location, byte[] body) {
+
+    public static IdempotentResponse inProgress(String requestHash) {
+        return new IdempotentResponse(requestHash, 0, null, null, new byte[0]);
+    }
+
+    public boolean inProgress() {
+        return status == 0;
+    }
+
+    public boolean matches(String requestHash) {
+        return this.requestHash.equals(requestHash);
+    }
+}
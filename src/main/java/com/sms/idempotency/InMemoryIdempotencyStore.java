@@ -0,0 +1,34 @@
+package com.sms.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Keys live in a bounded Caffeine cache, so they are per instance and gone after a restart.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, IdempotentResponse> responses;
+
+    public InMemoryIdempotencyStore(Duration ttl, long maxEntries) {
+        this.responses = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ttl).build();
+    }
+
+    @Override
+    public @Nullable IdempotentResponse claim(String key, String requestHash) {
+        return responses.asMap().putIfAbsent(key, IdempotentResponse.inProgress(requestHash));
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response) {
+        responses.put(key, response);
+    }
+
+    @Override
+    public void release(String key) {
+        responses.invalidate(key);
+    }
+}
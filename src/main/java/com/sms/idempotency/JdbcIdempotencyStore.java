@@ -0,0 +1,96 @@
+package com.sms.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keys in sms.idempotency_key, so a retry is recognised by any instance and after a restart. The
+ * primary key makes the claim atomic across instances; finished responses are also kept in a
+ * Caffeine cache in front, so replays on the instance that served the first request skip the table.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final int PURGE_EVERY_CLAIMS = 1000;
+
+    private static final String DELETE_STALE =
+            "DELETE FROM sms.idempotency_key WHERE idempotency_key = ? AND (created_at < ? OR (status = 0 AND created_at < ?))";
+    private static final String INSERT_CLAIM =
+            "INSERT INTO sms.idempotency_key (idempotency_key, request_hash, status, created_at) VALUES (?, ?, 0, ?)";
+    private static final String SELECT =
+            "SELECT request_hash, status, content_type, location, body FROM sms.idempotency_key WHERE idempotency_key = ?";
+    private static final String UPDATE_COMPLETE =
+            "UPDATE sms.idempotency_key SET status = ?, content_type = ?, location = ?, body = ? WHERE idempotency_key = ?";
+    private static final String DELETE =
+            "DELETE FROM sms.idempotency_key WHERE idempotency_key = ?";
+    private static final String PURGE_EXPIRED =
+            "DELETE FROM sms.idempotency_key WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration abandonedAfter;
+    private final Cache<String, IdempotentResponse> completed;
+    private final AtomicLong claims = new AtomicLong();
+
+    /**
+     * @param abandonedAfter how long a claim whose request never finished (the instance died)
+     *                       blocks its key; must outlast the slowest POST, or a retry runs it twice
+     */
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, Duration ttl, Duration abandonedAfter, long maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.abandonedAfter = abandonedAfter;
+        this.completed = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ttl).build();
+    }
+
+    @Override
+    public @Nullable IdempotentResponse claim(String key, String requestHash) {
+        IdempotentResponse cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (claims.incrementAndGet() % PURGE_EVERY_CLAIMS == 0) {
+            jdbcTemplate.update(PURGE_EXPIRED, Timestamp.valueOf(now.minus(ttl)));
+        }
+        jdbcTemplate.update(DELETE_STALE, key, Timestamp.valueOf(now.minus(ttl)), Timestamp.valueOf(now.minus(abandonedAfter)));
+        try {
+            jdbcTemplate.update(INSERT_CLAIM, key, requestHash, Timestamp.valueOf(now));
+            return null;
+        } catch (DuplicateKeyException ex) {
+            List<IdempotentResponse> stored = jdbcTemplate.query(SELECT, (rs, rowNum) -> new IdempotentResponse(
+                    rs.getString("request_hash"), rs.getInt("status"), rs.getString("content_type"), rs.getString("location"),
+                    rs.getBytes("body") == null ? new byte[0] : rs.getBytes("body")), key);
+            if (stored.isEmpty()) {
+                // released between our insert and the lookup
+                return IdempotentResponse.inProgress(requestHash);
+            }
+            IdempotentResponse response = stored.getFirst();
+            if (!response.inProgress()) {
+                completed.put(key, response);
+            }
+            return response;
+        }
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response) {
+        jdbcTemplate.update(UPDATE_COMPLETE, response.status(), response.contentType(), response.location(),
+                response.body(), key);
+        completed.put(key, response);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update(DELETE, key);
+        completed.invalidate(key);
+    }
+}
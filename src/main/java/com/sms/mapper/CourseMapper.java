@@ -1,9 +1,14 @@
 package com.sms.mapper;
 
 import com.sms.dto.CourseDTO;
+import com.sms.dto.CourseRosterEntryDTO;
+import com.sms.dto.FieldSelectionDTO;
 import com.sms.dto.StudentDTO;
 import com.sms.entity.Course;
 import com.sms.entity.Enrollment;
+import com.sms.repository.projection.CourseSummary;
+import com.sms.repository.projection.EnrolledCourse;
+import com.sms.repository.projection.RosterEntry;
 
 import java.util.List;
 
@@ -13,14 +18,33 @@ public class CourseMapper {
         courseDTO.setCredits(course.getCredits());
         courseDTO.setName(course.getName());
         courseDTO.setDescription(course.getDescription());
+        courseDTO.setCapacity(course.getCapacity());
         courseDTO.setId(course.getCourseId());
         return courseDTO;
     }
 
+    public static CourseDTO mapToCourseDTO(CourseSummary course, CourseDTO courseDTO) {
+        courseDTO.setCredits(course.credits());
+        courseDTO.setName(course.name());
+        courseDTO.setDescription(course.description());
+        courseDTO.setCapacity(course.capacity());
+        courseDTO.setId(course.courseId());
+        return courseDTO;
+    }
+
+    public static CourseDTO mapToCourseDTO(EnrolledCourse course, CourseDTO courseDTO) {
+        courseDTO.setCredits(course.credits());
+        courseDTO.setName(course.name());
+        courseDTO.setDescription(course.description());
+        courseDTO.setId(course.courseId());
+        return courseDTO;
+    }
+
     public static Course mapToCourse(CourseDTO courseDTO,Course course) {
         course.setCredits(courseDTO.getCredits());
         course.setName(courseDTO.getName());
         course.setDescription(courseDTO.getDescription());
+        course.setCapacity(courseDTO.getCapacity());
         if(courseDTO.getId()!=null){
             course.setCourseId(courseDTO.getId());
         }
@@ -35,4 +59,42 @@ public class CourseMapper {
         );
         return courseDTO;
     }
+
+    // the enrolled students by name and email, without their own courses
+    public static CourseDTO mapCourseRoster(CourseDTO courseDTO, List<RosterEntry> roster) {
+        courseDTO.setEnrolledStudents(roster.stream().map(entry -> StudentDTO.builder()
+                .id(entry.studentId())
+                .firstName(entry.firstName())
+                .lastName(entry.lastName())
+                .email(entry.email())
+                .build()).toList());
+        return courseDTO;
+    }
+
+    public static CourseDTO retainFields(CourseDTO courseDTO, FieldSelectionDTO selection) {
+        if (!selection.includes("id")) {
+            courseDTO.setId(null);
+        }
+        if (!selection.includes("name")) {
+            courseDTO.setName(null);
+        }
+        if (!selection.includes("credits")) {
+            courseDTO.setCredits(null);
+        }
+        if (!selection.includes("description")) {
+            courseDTO.setDescription(null);
+        }
+        if (!selection.includes("capacity")) {
+            courseDTO.setCapacity(null);
+        }
+        if (!selection.includes("enrolledCount")) {
+            courseDTO.setEnrolledCount(null);
+        }
+        return courseDTO;
+    }
+
+    public static CourseRosterEntryDTO mapToRosterEntryDTO(RosterEntry entry) {
+        return new CourseRosterEntryDTO(entry.studentId(), entry.firstName(), entry.lastName(), entry.email(),
+                entry.enrollmentDate());
+    }
 }
@@ -0,0 +1,32 @@
+package com.sms.mapper;
+
+import com.sms.dto.FieldSelectionDTO;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class FieldSelectionMapper {
+
+    /**
+     * The DTO as a tree holding only the properties picked by {@code ?fields=}, plus the nested
+     * collection (and its cursor) when it was expanded. Selected properties that are null are still written, so the
+     * omission is confined to sparse responses and the full DTOs keep their nulls.
+     */
+    public static JsonNode mapToSelectedFields(JsonMapper jsonMapper, Object dto, FieldSelectionDTO selection,
+                                               String... expandedProperties) {
+        ObjectNode node = jsonMapper.valueToTree(dto);
+        if (selection.getFields() == null) {
+            return node;
+        }
+        Set<String> retained = new HashSet<>(selection.getFields());
+        if (selection.isEnrollments()) {
+            retained.addAll(List.of(expandedProperties));
+        }
+        node.retain(retained);
+        return node;
+    }
+}
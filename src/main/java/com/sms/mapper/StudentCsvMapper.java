@@ -0,0 +1,104 @@
+package com.sms.mapper;
+
+import com.sms.dto.StudentDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps a CSV upload to StudentDTOs. The first line is a header naming the columns
+ * (firstName, lastName, email, phoneNumber, address) in any order; fields may be quoted
+ * with double quotes, a doubled quote inside a quoted field is a literal quote, and a quoted
+ * field may span line breaks. Blank lines are skipped.
+ */
+public class StudentCsvMapper {
+
+    /**
+     * A student read from the upload, with the line its record starts on.
+     */
+    public record Row(int line, StudentDTO student) {
+    }
+
+    private record Record(int line, List<String> fields) {
+    }
+
+    public static List<Row> mapToRows(String csv) {
+        List<Row> rows = new ArrayList<>();
+        List<Record> records = parse(csv);
+        if (records.isEmpty()) {
+            return rows;
+        }
+        List<String> header = records.getFirst().fields();
+        for (Record record : records.subList(1, records.size())) {
+            List<String> values = record.fields();
+            Map<String, String> row = new HashMap<>();
+            for (int col = 0; col < header.size() && col < values.size(); col++) {
+                row.put(header.get(col).strip(), values.get(col).strip());
+            }
+            rows.add(new Row(record.line(), StudentDTO.builder()
+                    .firstName(row.get("firstName"))
+                    .lastName(row.get("lastName"))
+                    .email(row.get("email"))
+                    .phoneNumber(row.getOrDefault("phoneNumber", ""))
+                    .address(row.get("address"))
+                    .build()));
+        }
+        return rows;
+    }
+
+    // a single pass over the whole upload, so line breaks only end a record outside quotes
+    private static List<Record> parse(String csv) {
+        List<Record> records = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean blank = true;
+        int line = 1;
+        int recordLine = 1;
+        for (int i = 0; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+                continue;
+            }
+            if (quoted) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                blank = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                blank = false;
+            } else if (c == '\n' || c == '\r') {
+                if (!blank) {
+                    fields.add(field.toString());
+                    records.add(new Record(recordLine, List.copyOf(fields)));
+                }
+                fields.clear();
+                field.setLength(0);
+                blank = true;
+                recordLine = line + 1;
+            } else {
+                field.append(c);
+                blank = blank && Character.isWhitespace(c);
+            }
+            if (c == '\n' || c == '\r') {
+                line++;
+            }
+        }
+        if (!blank) {
+            fields.add(field.toString());
+            records.add(new Record(recordLine, List.copyOf(fields)));
+        }
+        return records;
+    }
+}
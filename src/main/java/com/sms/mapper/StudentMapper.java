@@ -1,18 +1,18 @@
 package com.sms.mapper;
 
 import com.sms.dto.CourseDTO;
+import com.sms.dto.FieldSelectionDTO;
 import com.sms.dto.StudentDTO;
 import com.sms.entity.Course;
 import com.sms.entity.Enrollment;
 import com.sms.entity.Student;
+import com.sms.repository.projection.StudentSummary;
+
+import java.util.List;
 
 public class StudentMapper {
     public static Student mapToStudent(StudentDTO dto, Student entity) {
-       entity.setFirstName(dto.getFirstName());
-       entity.setLastName(dto.getLastName());
-       entity.setEmail(dto.getEmail());
-       entity.setPhone(dto.getPhoneNumber());
-       entity.setAddress(dto.getAddress());
+       mapToStudentDetails(dto, entity);
        if(dto.getEnrolledCourses()!=null && !dto.getEnrolledCourses().isEmpty()){
            entity.getEnrollments().clear();
 
@@ -26,6 +26,15 @@ public class StudentMapper {
 
     }
 
+    public static Student mapToStudentDetails(StudentDTO dto, Student entity) {
+        entity.setFirstName(dto.getFirstName());
+        entity.setLastName(dto.getLastName());
+        entity.setEmail(dto.getEmail());
+        entity.setPhone(dto.getPhoneNumber());
+        entity.setAddress(dto.getAddress());
+        return entity;
+    }
+
     public static StudentDTO mapToStudentDTO(Student entity,StudentDTO dto) {
         dto.setFirstName( entity.getFirstName());
         dto.setLastName( entity.getLastName());
@@ -39,6 +48,50 @@ public class StudentMapper {
         return  dto;
     }
 
+    public static StudentDTO mapToStudentDTO(Student entity, List<CourseDTO> enrolledCourses, StudentDTO dto) {
+        dto.setFirstName(entity.getFirstName());
+        dto.setLastName(entity.getLastName());
+        dto.setEmail(entity.getEmail());
+        dto.setPhoneNumber(entity.getPhone());
+        dto.setAddress(entity.getAddress());
+        dto.setId(entity.getStudentId());
+        dto.setEnrolledCourses(enrolledCourses);
+        return dto;
+    }
+
+    public static StudentDTO mapToStudentDTO(StudentSummary summary, List<CourseDTO> enrolledCourses, StudentDTO dto) {
+        dto.setFirstName(summary.firstName());
+        dto.setLastName(summary.lastName());
+        dto.setEmail(summary.email());
+        dto.setPhoneNumber(summary.phone());
+        dto.setAddress(summary.address());
+        dto.setId(summary.studentId());
+        dto.setEnrolledCourses(enrolledCourses);
+        return dto;
+    }
+
+    public static StudentDTO retainFields(StudentDTO dto, FieldSelectionDTO selection) {
+        if (!selection.includes("id")) {
+            dto.setId(null);
+        }
+        if (!selection.includes("firstName")) {
+            dto.setFirstName(null);
+        }
+        if (!selection.includes("lastName")) {
+            dto.setLastName(null);
+        }
+        if (!selection.includes("email")) {
+            dto.setEmail(null);
+        }
+        if (!selection.includes("phoneNumber")) {
+            dto.setPhoneNumber(null);
+        }
+        if (!selection.includes("address")) {
+            dto.setAddress(null);
+        }
+        return dto;
+    }
+
     public static Enrollment mapToEnrollment(Student student, Course course, Enrollment enrollment) {
         enrollment.setStudent(student);
         enrollment.setCourse(course);
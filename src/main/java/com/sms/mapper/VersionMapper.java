@@ -0,0 +1,59 @@
+package com.sms.mapper;
+
+import com.sms.dto.FieldSelectionDTO;
+import com.sms.dto.ResourceVersionDTO;
+import com.sms.repository.projection.CourseSummary;
+import com.sms.repository.projection.StudentVersion;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+public class VersionMapper {
+
+    public static ResourceVersionDTO mapToResourceVersion(StudentVersion version) {
+        LocalDateTime lastModified = Stream.of(version.updatedAt(), version.lastEnrolledAt(), version.coursesUpdatedAt())
+                .filter(Objects::nonNull).max(LocalDateTime::compareTo).orElse(null);
+        return new ResourceVersionDTO(
+                eTag("student", version.updatedAt(), version.enrollments(), version.enrollmentIdSum(), version.coursesUpdatedAt()),
+                lastModified == null ? null : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    // the enrolled count changes without touching updatedAt, so a course only gets an ETag
+    public static ResourceVersionDTO mapToResourceVersion(Integer courseId, @Nullable LocalDateTime updatedAt, Integer enrolledCount) {
+        return new ResourceVersionDTO(eTag("course", courseId, updatedAt, enrolledCount), null);
+    }
+
+    // hashed from the cached rows themselves, so the tag always describes the list that is served with it
+    public static ResourceVersionDTO mapToResourceVersion(List<CourseSummary> catalog) {
+        return new ResourceVersionDTO(eTag(catalog.toArray()), null);
+    }
+
+    /**
+     * The version of a narrowed or expanded representation. It is a different body from the full
+     * resource, so it gets its own ETag; Last-Modified is dropped, since a date alone can't tell a
+     * sparse copy from a full one.
+     */
+    public static ResourceVersionDTO mapToResourceVersion(ResourceVersionDTO version, FieldSelectionDTO selection,
+                                                          FieldSelectionDTO defaults) {
+        if (selection.canonical().equals(defaults.canonical())) {
+            return version;
+        }
+        return new ResourceVersionDTO(eTag(version.getETag(), selection.canonical()), null);
+    }
+
+    // weak: the tag follows the data, not the bytes, which differ per encoding and compression
+    private static String eTag(Object... parts) {
+        StringJoiner joined = new StringJoiner("|");
+        for (Object part : parts) {
+            joined.add(String.valueOf(part));
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(joined.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,32 @@
+package com.sms.mapper;
+
+import com.sms.dto.WaitlistEntryDTO;
+import com.sms.entity.Course;
+import com.sms.entity.Student;
+import com.sms.entity.WaitlistEntry;
+import com.sms.repository.projection.WaitlistSlot;
+
+public class WaitlistMapper {
+
+    public static WaitlistEntryDTO mapToWaitlistEntryDTO(WaitlistSlot slot, Integer courseId, long position) {
+        return new WaitlistEntryDTO(slot.studentId(), slot.firstName(), slot.lastName(), courseId,
+                WaitlistEntryDTO.Status.WAITLISTED, position, slot.joinedAt());
+    }
+
+    public static WaitlistEntryDTO mapToWaitlistEntryDTO(WaitlistEntry entry, long position) {
+        Student student = entry.getStudent();
+        return new WaitlistEntryDTO(student.getStudentId(), student.getFirstName(), student.getLastName(),
+                entry.getCourse().getCourseId(), WaitlistEntryDTO.Status.WAITLISTED, position, entry.getCreatedAt());
+    }
+
+    public static WaitlistEntryDTO mapToEnrolledDTO(Student student, Integer courseId) {
+        return new WaitlistEntryDTO(student.getStudentId(), student.getFirstName(), student.getLastName(), courseId,
+                WaitlistEntryDTO.Status.ENROLLED, null, null);
+    }
+
+    public static WaitlistEntry mapToWaitlistEntry(Student student, Course course, WaitlistEntry entry) {
+        entry.setStudent(student);
+        entry.setCourse(course);
+        return entry;
+    }
+}
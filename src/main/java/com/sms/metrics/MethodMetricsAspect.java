@@ -0,0 +1,67 @@
+package com.sms.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Times every call into the service layer and the repositories, tagged by class, method and
+ * outcome. Ordered ahead of the cache and transaction advice so the timings include cache hits
+ * and the commit.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class MethodMetricsAspect {
+
+    public static final String SERVICE_TIMER = "sms.service.invocations";
+    public static final String REPOSITORY_TIMER = "sms.repository.invocations";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* com.sms.service.I*Service.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_TIMER, joinPoint);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..)) || within(com.sms.repository..*)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tag("class", targetName(joinPoint.getTarget()))
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", "none".equals(exception) ? "success" : "error")
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String targetName(Object target) {
+        // Spring Data repositories are JDK proxies, name them after the repository interface
+        if (AopUtils.isJdkDynamicProxy(target)) {
+            return AopProxyUtils.proxiedUserInterfaces(target)[0].getSimpleName();
+        }
+        return ClassUtils.getUserClass(target).getSimpleName();
+    }
+}
@@ -0,0 +1,23 @@
+package com.sms.outbox;
+
+import com.sms.dto.EnrollmentEventDTO;
+import com.sms.event.EnrollmentEventsRelayedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+/**
+ * Hands each batch to in-process listeners of {@link EnrollmentEventsRelayedEvent}, synchronously,
+ * so a failing listener fails the delivery.
+ */
+@RequiredArgsConstructor
+public class ApplicationEventOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(List<EnrollmentEventDTO> events) {
+        eventPublisher.publishEvent(new EnrollmentEventsRelayedEvent(List.copyOf(events)));
+    }
+}
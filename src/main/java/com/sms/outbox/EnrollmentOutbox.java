@@ -0,0 +1,65 @@
+package com.sms.outbox;
+
+import com.sms.dto.EnrollmentEventDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Records enrollment changes in sms.enrollment_outbox. Callers must already be in the transaction
+ * that makes the change, so the event commits or rolls back with it; {@link OutboxRelay} delivers
+ * it once committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class EnrollmentOutbox {
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO sms.enrollment_outbox (event_type, student_id, course_id, occurred_at) VALUES (?, ?, ?, ?)";
+
+    // one statement however many enrollments the students had, run before they are deleted
+    private static final String INSERT_UNENROLLED_OF_STUDENTS =
+            "INSERT INTO sms.enrollment_outbox (event_type, student_id, course_id, occurred_at)"
+                    + " SELECT ?, e.student_id, e.course_id, ? FROM sms.enrollments e WHERE e.student_id IN (%s)"
+                    + " ORDER BY e.student_id, e.course_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void recordForStudent(EnrollmentEventDTO.Type type, Integer studentId, Collection<Integer> courseIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_EVENT, courseIds.stream()
+                .map(courseId -> new Object[]{type.name(), studentId, courseId, now})
+                .toList());
+    }
+
+    public void recordForCourse(EnrollmentEventDTO.Type type, Integer courseId, Collection<Integer> studentIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_EVENT, studentIds.stream()
+                .map(studentId -> new Object[]{type.name(), studentId, courseId, now})
+                .toList());
+    }
+
+    /**
+     * Records an UNENROLLED event for every enrollment the students still have, for deletes that
+     * drop them wholesale without reading them first.
+     */
+    public void recordUnenrollmentsOfStudents(Collection<Integer> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        Object[] args = new Object[studentIds.size() + 2];
+        args[0] = EnrollmentEventDTO.Type.UNENROLLED.name();
+        args[1] = Timestamp.valueOf(LocalDateTime.now());
+        int i = 2;
+        for (Integer studentId : studentIds) {
+            args[i++] = studentId;
+        }
+        jdbcTemplate.update(INSERT_UNENROLLED_OF_STUDENTS.formatted(
+                String.join(", ", Collections.nCopies(studentIds.size(), "?"))), args);
+    }
+}
@@ -0,0 +1,54 @@
+package com.sms.outbox;
+
+import com.sms.dto.EnrollmentEventDTO;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends each event to a file as one JSON line. The batch is forced to disk before the relay
+ * deletes it from the outbox, so a crash can repeat lines but not lose them.
+ */
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path file;
+    private final JsonMapper jsonMapper;
+
+    public FileOutboxSink(Path file, JsonMapper jsonMapper) {
+        this.file = file;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<EnrollmentEventDTO> events) {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (EnrollmentEventDTO event : events) {
+            jsonMapper.writeValue(lines, event);
+            lines.write('\n');
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append enrollment events to " + file, ex);
+        }
+    }
+}
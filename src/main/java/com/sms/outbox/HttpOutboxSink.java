@@ -0,0 +1,53 @@
+package com.sms.outbox;
+
+import com.sms.dto.EnrollmentEventDTO;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * POSTs each batch as a JSON array. Any 2xx answer counts as delivered; anything else, or no
+ * answer within the timeout, leaves the batch for the next run.
+ */
+public class HttpOutboxSink implements OutboxSink {
+
+    private final URI uri;
+    private final Duration timeout;
+    private final JsonMapper jsonMapper;
+    private final HttpClient httpClient;
+
+    public HttpOutboxSink(URI uri, Duration timeout, JsonMapper jsonMapper) {
+        this.uri = uri;
+        this.timeout = timeout;
+        this.jsonMapper = jsonMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void publish(List<EnrollmentEventDTO> events) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(events)))
+                .build();
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not post enrollment events to " + uri, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while posting enrollment events to " + uri, ex);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Posting enrollment events to " + uri + " returned " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.sms.outbox;
+
+import com.sms.constants.SMSConstants;
+import com.sms.dto.EnrollmentEventDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves committed events from sms.enrollment_outbox to the {@link OutboxSink}. Every interval it
+ * reads the oldest batch, hands it to the sink and then deletes it, repeating while full batches
+ * come back. Each of these is a statement of its own: no transaction or row lock is held while the
+ * sink runs, so a slow or unreachable consumer never holds up the enrollment writes that append to
+ * the outbox. Only the instance holding the lease row in sms.outbox_relay_lease relays, renewing
+ * it before every batch, so batches go out one at a time in outbox order; the lease must outlast
+ * the slowest publish, or a second instance may take over mid-batch. A failing sink leaves the
+ * batch in the outbox for the next run, which makes delivery at least once: a batch the sink took
+ * before the delete went through is delivered again.
+ */
+@Slf4j
+public class OutboxRelay implements DisposableBean {
+
+    private static final String TAKE_LEASE = "UPDATE sms.outbox_relay_lease SET owner = ?, leased_until = ?"
+            + " WHERE lease_id = 1 AND (owner = ? OR leased_until < ?)";
+    private static final String INSERT_LEASE =
+            "INSERT INTO sms.outbox_relay_lease (lease_id, owner, leased_until) VALUES (1, ?, ?)";
+    private static final String SELECT_BATCH =
+            "SELECT event_id, event_type, student_id, course_id, occurred_at FROM sms.enrollment_outbox"
+                    + " ORDER BY event_id LIMIT ?";
+    private static final String DELETE_BATCH = "DELETE FROM sms.enrollment_outbox WHERE event_id IN (:ids)";
+
+    private static final RowMapper<EnrollmentEventDTO> EVENT_MAPPER = (rs, rowNum) -> new EnrollmentEventDTO(
+            rs.getLong("event_id"),
+            EnrollmentEventDTO.Type.valueOf(rs.getString("event_type")),
+            rs.getInt("student_id"),
+            rs.getInt("course_id"),
+            rs.getTimestamp("occurred_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final OutboxSink sink;
+    private final Duration interval;
+    private final Duration lease;
+    private final String owner = UUID.randomUUID().toString();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("outbox-relay").daemon().factory());
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, OutboxSink sink, Duration interval, Duration lease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.sink = sink;
+        this.interval = interval;
+        this.lease = lease;
+    }
+
+    // after startup, so Hibernate has created the outbox table where it manages the schema
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::relayQuietly, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Delivers everything committed to the outbox so far, unless another instance holds the lease.
+     *
+     * @return the number of events delivered
+     */
+    public synchronized int relay() {
+        int delivered = 0;
+        int batch;
+        do {
+            if (!takeLease()) {
+                return delivered;
+            }
+            batch = relayBatch();
+            delivered += batch;
+        } while (batch == SMSConstants.OUTBOX_RELAY_BATCH_SIZE);
+        return delivered;
+    }
+
+    private boolean takeLease() {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp until = Timestamp.valueOf(now.plus(lease));
+        if (jdbcTemplate.update(TAKE_LEASE, owner, until, owner, Timestamp.valueOf(now)) == 1) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(INSERT_LEASE, owner, until) == 1;
+        } catch (DuplicateKeyException ex) {
+            // the row exists, and its lease belongs to another instance
+            return false;
+        }
+    }
+
+    private int relayBatch() {
+        List<EnrollmentEventDTO> events = jdbcTemplate.query(SELECT_BATCH, EVENT_MAPPER, SMSConstants.OUTBOX_RELAY_BATCH_SIZE);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        sink.publish(events);
+        namedJdbcTemplate.update(DELETE_BATCH, Map.of("ids", events.stream().map(EnrollmentEventDTO::getEventId).toList()));
+        return events.size();
+    }
+
+    private void relayQuietly() {
+        try {
+            relay();
+        } catch (RuntimeException ex) {
+            log.warn("Relaying enrollment events failed, retrying in {}: {}", interval, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
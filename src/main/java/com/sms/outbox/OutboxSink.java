@@ -0,0 +1,18 @@
+package com.sms.outbox;
+
+import com.sms.dto.EnrollmentEventDTO;
+
+import java.util.List;
+
+/**
+ * Where {@link OutboxRelay} delivers committed enrollment events, picked by sms.outbox.sink.
+ */
+public interface OutboxSink {
+
+    /**
+     * Delivers one batch, in outbox order. Must only return once the batch is delivered: the
+     * relay deletes the events afterwards. Throwing keeps them in the outbox for the next run,
+     * so a batch that failed half way through is delivered again in full.
+     */
+    void publish(List<EnrollmentEventDTO> events);
+}
@@ -1,17 +1,72 @@
 package com.sms.repository;
 
 
+import com.sms.constants.SMSConstants;
 import com.sms.entity.Course;
+import com.sms.repository.projection.CourseSummary;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Integer> {
-   List<Course> findAllByStatusEquals(Course.Status status);
+   @Cacheable(SMSConstants.ACTIVE_COURSES_CACHE)
+   List<CourseSummary> findSummariesByStatusEqualsOrderByCourseIdAsc(Course.Status status);
    Optional<Course> findByCourseIdAndStatusEquals(Integer id, Course.Status status);
 
+   // Cached read-only lookup; write paths keep using findByCourseIdAndStatusEquals for a managed entity
+   @Cacheable(cacheNames = SMSConstants.COURSE_CACHE, unless = "#result == null")
+   @Query("select c from Course c where c.courseId = :id and c.status = com.sms.entity.Course.Status.Active")
+   Optional<Course> findActiveById(@Param("id") Integer id);
+
+   @Query("select c.courseId from Course c where c.courseId in :ids and c.status = com.sms.entity.Course.Status.Active")
+   List<Integer> findActiveIdsByCourseIdIn(@Param("ids") Collection<Integer> ids);
+
+   @Query("select c.enrolledCount from Course c where c.courseId = :id")
+   Optional<Integer> findEnrolledCountByCourseId(@Param("id") Integer id);
+
+   // For the bulk enrollment path, which needs to see the free seats and keep them until it commits
+   @Lock(LockModeType.PESSIMISTIC_WRITE)
+   @Query("select c from Course c where c.courseId = :id and c.status = com.sms.entity.Course.Status.Active")
+   Optional<Course> findActiveByIdForUpdate(@Param("id") Integer id);
+
+   // Conditional claim: the capacity check and the increment are one statement under the row lock, so
+   // concurrent requests can't both take the last seat, and a full course is a 0 without waiting on
+   // anything else. Runs before the enrollment insert, so the FK check doesn't need a shared lock
+   // that later has to be upgraded. While anyone is waitlisted the free seats belong to the queue
+   @Modifying
+   @Query("update Course c set c.enrolledCount = c.enrolledCount + 1"
+           + " where c.courseId = :id and (c.capacity is null or c.enrolledCount < c.capacity)"
+           + " and not exists (select w.waitlistId from WaitlistEntry w where w.course = c)")
+   int claimSeat(@Param("id") Integer id);
+
+   // Relative in-place update: concurrent writers each add their own delta under the row lock
+   // instead of a read-modify-write on the entity
+   @Modifying
+   @Query("update Course c set c.enrolledCount = c.enrolledCount + :delta where c.courseId in :ids")
+   int adjustEnrolledCounts(@Param("ids") Collection<Integer> ids, @Param("delta") int delta);
+
+   // Takes the students' seats back in one statement; must run before their enrollments are deleted
+   @Modifying
+   @Query("update Course c set c.enrolledCount = c.enrolledCount"
+           + " - (select cast(count(e) as Integer) from Enrollment e where e.course = c and e.student.studentId in :studentIds)"
+           + " where c.courseId in (select e.course.courseId from Enrollment e where e.student.studentId in :studentIds)")
+   int releaseSeatsOfStudents(@Param("studentIds") Collection<Integer> studentIds);
+
+   // Search index feed: whichever of the courses are still active, as summaries
+   List<CourseSummary> findSummariesByCourseIdInAndStatusEquals(Collection<Integer> ids, Course.Status status);
+
+   // Keyset pagination: seeks past the last id of the previous page on (status, course_id)
+   List<CourseSummary> findSummariesByStatusEqualsAndCourseIdGreaterThanOrderByCourseIdAsc(Course.Status status, Integer after, Limit limit);
+
 }
@@ -0,0 +1,60 @@
+package com.sms.repository;
+
+import com.sms.entity.Enrollment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC batch inserts for enrollments, see {@link StudentBatchRepository} for why bulk paths
+ * bypass Hibernate.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EnrollmentBatchRepository {
+
+    private static final String INSERT_ENROLLMENT =
+            "INSERT INTO sms.enrollments (student_id, course_id, enrollment_date, status, created_at, updated_at)"
+                    + " VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_ENROLLED =
+            "SELECT student_id FROM sms.enrollments WHERE course_id = ? AND student_id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Enrolls those of the students who aren't in the course yet as one JDBC batch, and returns
+     * them in request order. The per-row update counts can't say that (a rewritten batch reports
+     * SUCCESS_NO_INFO for every row), so the existing pairs are read first. Callers hold the course
+     * row lock that every enrollment path takes, so none can appear in between; if one does anyway,
+     * uq_student_course fails the batch rather than it being miscounted.
+     */
+    public List<Integer> insertAll(Integer courseId, List<Integer> studentIds) {
+        if (studentIds.isEmpty()) {
+            return List.of();
+        }
+        Object[] args = new Object[studentIds.size() + 1];
+        args[0] = courseId;
+        for (int i = 0; i < studentIds.size(); i++) {
+            args[i + 1] = studentIds.get(i);
+        }
+        Set<Integer> enrolled = new HashSet<>(jdbcTemplate.queryForList(
+                SELECT_ENROLLED.formatted(String.join(", ", Collections.nCopies(studentIds.size(), "?"))), Integer.class, args));
+        List<Integer> toInsert = studentIds.stream().distinct().filter(studentId -> !enrolled.contains(studentId)).toList();
+
+        Date today = Date.valueOf(LocalDate.now());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_ENROLLMENT, toInsert.stream()
+                .map(studentId -> new Object[]{studentId, courseId, today, Enrollment.Status.Active.name(), now, now})
+                .toList());
+        return toInsert;
+    }
+}
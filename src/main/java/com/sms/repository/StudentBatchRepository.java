@@ -0,0 +1,82 @@
+package com.sms.repository;
+
+import com.sms.entity.Student;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch inserts for students. Student ids use IDENTITY, which makes Hibernate insert
+ * one row per statement, so bulk paths go through plain JDBC batches instead. On MySQL the
+ * driver's rewriteBatchedStatements turns each batch into a single multi-row INSERT.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StudentBatchRepository {
+
+    private static final String INSERT_STUDENT =
+            "INSERT INTO sms.student (first_name, last_name, email, phone, address, enrollment_date, status, created_at, updated_at)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${sms.bulk.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Inserts the students in batches of {@code sms.bulk.batch-size} and returns the
+     * generated ids in insertion order.
+     */
+    public List<Integer> insertAll(List<Student> students) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Integer>>) connection -> {
+            List<Integer> ids = new ArrayList<>(students.size());
+            LocalDateTime now = LocalDateTime.now();
+            Date today = Date.valueOf(now.toLocalDate());
+            Timestamp createdAt = Timestamp.valueOf(now);
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_STUDENT, Statement.RETURN_GENERATED_KEYS)) {
+                int pending = 0;
+                for (Student student : students) {
+                    ps.setString(1, student.getFirstName());
+                    ps.setString(2, student.getLastName());
+                    ps.setString(3, student.getEmail());
+                    ps.setString(4, student.getPhone());
+                    ps.setString(5, student.getAddress());
+                    ps.setDate(6, student.getEnrollmentDate() == null ? today : Date.valueOf(student.getEnrollmentDate()));
+                    ps.setString(7, Student.Status.Active.name());
+                    ps.setTimestamp(8, createdAt);
+                    ps.setTimestamp(9, createdAt);
+                    ps.addBatch();
+                    if (++pending == batchSize) {
+                        executeBatch(ps, ids);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    executeBatch(ps, ids);
+                }
+            }
+            return ids;
+        });
+    }
+
+    private void executeBatch(PreparedStatement ps, List<Integer> ids) throws SQLException {
+        ps.executeBatch();
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            while (keys.next()) {
+                ids.add(keys.getInt(1));
+            }
+        }
+    }
+}
@@ -1,18 +1,57 @@
 package com.sms.repository;
 
 import com.sms.entity.Enrollment;
+import com.sms.entity.Student;
+import com.sms.repository.projection.EnrolledCourse;
+import com.sms.repository.projection.RosterEntry;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface StudentEnrollmentRepository extends JpaRepository<Enrollment,Integer> {
 
-    List<Enrollment> findByCourse_CourseId(Integer courseId);
+    // Course roster: keyset pages over (course_id, student_id) with only the columns the roster shows
+    @Query("select new com.sms.repository.projection.RosterEntry(s.studentId, s.firstName, s.lastName, s.email, e.enrollmentDate)"
+            + " from Enrollment e join e.student s where e.course.courseId = :courseId and s.studentId > :after"
+            + " order by s.studentId")
+    List<RosterEntry> findRosterByCourseId(@Param("courseId") Integer courseId, @Param("after") Integer after, Limit limit);
 
+    @Query("select new com.sms.repository.projection.EnrolledCourse(s.studentId, c.courseId, c.name, c.credits, c.description)"
+            + " from Enrollment e join e.student s join e.course c where s.status = :status order by s.studentId, e.enrollmentId")
+    List<EnrolledCourse> findEnrolledCoursesByStudentStatus(@Param("status") Student.Status status);
 
-    List<Enrollment> deleteByStudent_StudentId(Integer studentId);
+    @Query("select new com.sms.repository.projection.EnrolledCourse(s.studentId, c.courseId, c.name, c.credits, c.description)"
+            + " from Enrollment e join e.student s join e.course c where s.studentId in :studentIds order by s.studentId, e.enrollmentId")
+    List<EnrolledCourse> findEnrolledCoursesByStudentIdIn(@Param("studentIds") Collection<Integer> studentIds);
+
+    @Query("select e.student.studentId from Enrollment e where e.course.courseId = :courseId and e.student.studentId in :studentIds")
+    List<Integer> findStudentIdsByCourseIdAndStudentIdIn(@Param("courseId") Integer courseId,
+                                                          @Param("studentIds") Collection<Integer> studentIds);
+
+
+    // Set-based delete for deactivation: one DELETE for any number of students instead of a
+    // SELECT plus one DELETE per row. Clears the persistence context so no stale enrollments linger
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Enrollment e where e.student.studentId in :studentIds")
+    int deleteAllByStudentIdIn(@Param("studentIds") Collection<Integer> studentIds);
+
+    @Query("select e.course.courseId from Enrollment e where e.student.studentId = :studentId")
+    List<Integer> findCourseIdsByStudentId(@Param("studentId") Integer studentId);
+
+    // The courses whose seats a deactivation frees, read before the enrollments go
+    @Query("select distinct e.course.courseId from Enrollment e where e.student.studentId in :studentIds")
+    List<Integer> findCourseIdsByStudentIdIn(@Param("studentIds") Collection<Integer> studentIds);
+
+    // Single bulk DELETE, unlike the derived delete above it does not load the rows first
+    @Modifying
+    @Query("delete from Enrollment e where e.student.studentId = :studentId and e.course.courseId in :courseIds")
+    int deleteByStudentIdAndCourseIdIn(@Param("studentId") Integer studentId, @Param("courseIds") Collection<Integer> courseIds);
 
 }
@@ -1,15 +1,88 @@
 package com.sms.repository;
 
 import com.sms.entity.Student;
+import com.sms.repository.projection.StudentSummary;
+import com.sms.repository.projection.StudentVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student,Integer> {
 
     List<Student> findAllByStatusEquals(Student.Status status);
     Optional<Student> findByStudentIdAndStatusEquals(Integer id, Student.Status status);
+
+    // List reads select just the DTO columns into unmanaged records; courses come from
+    // StudentEnrollmentRepository.findEnrolledCourses*
+    List<StudentSummary> findSummariesByStatusEqualsOrderByStudentIdAsc(Student.Status status);
+
+    // Keyset pagination: seeks past the last id of the previous page on (status, student_id)
+    List<StudentSummary> findSummariesByStatusEqualsAndStudentIdGreaterThanOrderByStudentIdAsc(
+            Student.Status status, Integer after, Limit limit);
+
+    // Search index feed: whichever of the students are still active, as summaries
+    List<StudentSummary> findSummariesByStudentIdInAndStatusEquals(Collection<Integer> ids, Student.Status status);
+
+    // Single student read that loads enrollments and their courses in the same round trip
+    @EntityGraph(attributePaths = {"enrollments", "enrollments.course"})
+    Optional<Student> findWithEnrollmentsByStudentIdAndStatusEquals(Integer id, Student.Status status);
+
+    // Conditional GET validators for a single student, one aggregate over the rows its DTO is built from
+    @Query("select new com.sms.repository.projection.StudentVersion(s.updatedAt, count(e), coalesce(sum(e.enrollmentId), 0L),"
+            + " max(e.createdAt), max(c.updatedAt))"
+            + " from Student s left join s.enrollments e left join e.course c"
+            + " where s.studentId = :id and s.status = com.sms.entity.Student.Status.Active group by s.studentId, s.updatedAt")
+    Optional<StudentVersion> findVersionByStudentId(@Param("id") Integer id);
+
+    // Bumps updatedAt for changes that leave no newer row behind, such as a dropped enrollment
+    @Modifying
+    @Query("update Student s set s.updatedAt = :now where s.studentId = :id")
+    int touch(@Param("id") Integer id, @Param("now") LocalDateTime now);
+
+    @Query("select s.studentId from Student s where s.studentId in :ids and s.status = :status")
+    List<Integer> findIdsByStudentIdInAndStatus(@Param("ids") Collection<Integer> ids, @Param("status") Student.Status status);
+
+    // Batch deactivation by enrollment date, walked in id order a chunk at a time
+    long countByStatusEqualsAndEnrollmentDateBefore(Student.Status status, LocalDate enrolledBefore);
+
+    @Query("select s.studentId from Student s where s.status = :status and s.enrollmentDate < :before"
+            + " and s.studentId > :after order by s.studentId")
+    List<Integer> findIdsByStatusAndEnrollmentDateBefore(@Param("status") Student.Status status,
+            @Param("before") LocalDate enrolledBefore, @Param("after") Integer after, Limit limit);
+
+    // Soft delete as one UPDATE; returns how many of the students were still active
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Student s set s.status = com.sms.entity.Student.Status.Inactive, s.updatedAt = :now"
+            + " where s.studentId in :ids and s.status = com.sms.entity.Student.Status.Active")
+    int deactivateByStudentIdIn(@Param("ids") Collection<Integer> ids, @Param("now") LocalDateTime now);
+
+    @Query("select s.email from Student s where s.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select s.phone from Student s where s.phone in :phones")
+    List<String> findExistingPhones(@Param("phones") Collection<String> phones);
+
+    // Cursor over the whole table for exports; ordered by id so each student's fetched rows arrive together
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select s from Student s left join fetch s.enrollments e left join fetch e.course"
+            + " where s.status = :status order by s.studentId")
+    Stream<Student> streamAllWithEnrollmentsByStatus(@Param("status") Student.Status status);
 }
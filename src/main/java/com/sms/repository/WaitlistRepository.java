@@ -0,0 +1,44 @@
+package com.sms.repository;
+
+import com.sms.entity.WaitlistEntry;
+import com.sms.repository.projection.WaitlistSlot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Integer> {
+
+    // Keyset pages from the head of the queue over (course_id, waitlist_id)
+    @Query("select new com.sms.repository.projection.WaitlistSlot(w.waitlistId, s.studentId, s.firstName, s.lastName, w.createdAt)"
+            + " from WaitlistEntry w join w.student s where w.course.courseId = :courseId and w.waitlistId > :after"
+            + " order by w.waitlistId")
+    List<WaitlistSlot> findSlotsByCourseId(@Param("courseId") Integer courseId, @Param("after") Integer after, Limit limit);
+
+    @Query("select count(w) from WaitlistEntry w where w.course.courseId = :courseId and w.waitlistId < :waitlistId")
+    long countAhead(@Param("courseId") Integer courseId, @Param("waitlistId") Integer waitlistId);
+
+    Optional<WaitlistEntry> findByStudent_StudentIdAndCourse_CourseId(Integer studentId, Integer courseId);
+
+    boolean existsByCourse_CourseId(Integer courseId);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.waitlistId in :ids")
+    int deleteAllByWaitlistIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.student.studentId = :studentId and w.course.courseId = :courseId")
+    int deleteByStudentIdAndCourseId(@Param("studentId") Integer studentId, @Param("courseId") Integer courseId);
+
+    // Deactivated students leave every queue they were in
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.student.studentId in :studentIds")
+    int deleteAllByStudentIdIn(@Param("studentIds") Collection<Integer> studentIds);
+}
@@ -0,0 +1,8 @@
+package com.sms.repository.projection;
+
+/**
+ * The course columns CourseDTO needs, selected without loading the entity.
+ */
+public record CourseSummary(Integer courseId, String name, Integer credits, String description, Integer capacity,
+                            Integer enrolledCount) {
+}
@@ -0,0 +1,8 @@
+package com.sms.repository.projection;
+
+/**
+ * A course a student is enrolled in, keyed by the student so a page of students can be
+ * filled from one query.
+ */
+public record EnrolledCourse(Integer studentId, Integer courseId, String name, Integer credits, String description) {
+}
@@ -0,0 +1,10 @@
+package com.sms.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * One enrolled student of a course, read from a single enrollment/student join.
+ */
+public record RosterEntry(Integer studentId, String firstName, String lastName, String email,
+                          LocalDate enrollmentDate) {
+}
@@ -0,0 +1,8 @@
+package com.sms.repository.projection;
+
+/**
+ * The student columns StudentDTO needs, selected without loading the entity.
+ */
+public record StudentSummary(Integer studentId, String firstName, String lastName, String email,
+                             String phone, String address) {
+}
@@ -0,0 +1,12 @@
+package com.sms.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * What GET /api/student/{id} depends on, aggregated without loading the student: its own
+ * timestamp, which enrollments it has (count and id sum, so adding one and dropping another still
+ * shows) and the newest change among them and their courses.
+ */
+public record StudentVersion(LocalDateTime updatedAt, Long enrollments, Long enrollmentIdSum,
+                             LocalDateTime lastEnrolledAt, LocalDateTime coursesUpdatedAt) {
+}
@@ -0,0 +1,10 @@
+package com.sms.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * One waitlisted student of a course, in queue order.
+ */
+public record WaitlistSlot(Integer waitlistId, Integer studentId, String firstName, String lastName,
+                           LocalDateTime joinedAt) {
+}
@@ -0,0 +1,242 @@
+package com.sms.search;
+
+import com.sms.dto.SearchHitDTO;
+import com.sms.repository.projection.CourseSummary;
+import com.sms.repository.projection.StudentSummary;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * In-process Lucene index over active students (name, email, phone) and courses (name,
+ * description). It is a derived copy of the database: it is emptied and refilled on every start by
+ * {@link SearchIndexListener}, which also feeds it the rows that change afterwards, so nothing in
+ * here is ever read back as the source of truth.
+ * <p>
+ * Writes become visible to searches on {@link #refresh()}; searches run against the last
+ * refreshed snapshot and never touch the database.
+ */
+@Component
+public class SearchIndex implements DisposableBean {
+
+    private static final String KEY = "key";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String EMAIL = "email";
+    private static final String PHONE = "phone";
+    private static final String DESCRIPTION = "description";
+
+    // digits typed for a phone lookup start matching from this many on
+    private static final int MIN_PHONE_PREFIX = 3;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public SearchIndex(@Value("${sms.search.index-dir:}") String indexDir) throws IOException {
+        directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+        // CREATE drops whatever a previous run left behind; the startup rebuild refills it
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE)
+                .setCommitOnClose(false));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    public void indexStudents(Collection<StudentSummary> students) {
+        for (StudentSummary student : students) {
+            Document doc = document(SearchHitDTO.Type.STUDENT, student.studentId());
+            doc.add(new TextField(NAME, student.firstName() + " " + student.lastName(), Field.Store.YES));
+            doc.add(new TextField(EMAIL, student.email(), Field.Store.YES));
+            if (student.phone() != null) {
+                doc.add(new StringField(PHONE, student.phone(), Field.Store.NO));
+            }
+            update(SearchHitDTO.Type.STUDENT, student.studentId(), doc);
+        }
+    }
+
+    public void indexCourses(Collection<CourseSummary> courses) {
+        for (CourseSummary course : courses) {
+            Document doc = document(SearchHitDTO.Type.COURSE, course.courseId());
+            doc.add(new TextField(NAME, course.name(), Field.Store.YES));
+            if (course.description() != null) {
+                doc.add(new TextField(DESCRIPTION, course.description(), Field.Store.YES));
+            }
+            update(SearchHitDTO.Type.COURSE, course.courseId(), doc);
+        }
+    }
+
+    public void delete(SearchHitDTO.Type type, Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            writer.deleteDocuments(ids.stream().map(id -> key(type, id)).toArray(Term[]::new));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public void deleteAll() {
+        try {
+            writer.deleteAll();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Makes the writes so far visible to searches, without an fsync; the index doesn't need to
+     * survive a restart.
+     */
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Every word of the text has to match a name, email or description word, the last one as a
+     * prefix so partly typed names already match. A run of digits also matches phone numbers that
+     * start with it.
+     */
+    public List<SearchHitDTO> search(String text, SearchHitDTO.@Nullable Type type, int limit) {
+        Query query = buildQuery(text, type);
+        if (query == null) {
+            return List.of();
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                StoredFields storedFields = searcher.storedFields();
+                List<SearchHitDTO> hits = new ArrayList<>();
+                for (ScoreDoc scoreDoc : searcher.search(query, limit).scoreDocs) {
+                    Document doc = storedFields.document(scoreDoc.doc);
+                    SearchHitDTO.Type hitType = SearchHitDTO.Type.valueOf(doc.get(TYPE));
+                    hits.add(new SearchHitDTO(hitType, doc.getField(ID).numericValue().intValue(), doc.get(NAME),
+                            doc.get(hitType == SearchHitDTO.Type.STUDENT ? EMAIL : DESCRIPTION), scoreDoc.score));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private @Nullable Query buildQuery(String text, SearchHitDTO.@Nullable Type type) {
+        List<String> words = analyze(text);
+        String digits = text.replaceAll("\\D", "");
+        boolean phoneLookup = digits.length() >= MIN_PHONE_PREFIX;
+        if (words.isEmpty() && !phoneLookup) {
+            return null;
+        }
+
+        BooleanQuery.Builder textQuery = new BooleanQuery.Builder();
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(NAME, word)), 3f), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new TermQuery(new Term(EMAIL, word)), 2f), BooleanClause.Occur.SHOULD)
+                    .add(new TermQuery(new Term(DESCRIPTION, word)), BooleanClause.Occur.SHOULD);
+            if (i == words.size() - 1) {
+                anyField.add(new PrefixQuery(new Term(NAME, word)), BooleanClause.Occur.SHOULD)
+                        .add(new PrefixQuery(new Term(EMAIL, word)), BooleanClause.Occur.SHOULD);
+            }
+            textQuery.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder().setMinimumNumberShouldMatch(1);
+        if (!words.isEmpty()) {
+            query.add(textQuery.build(), BooleanClause.Occur.SHOULD);
+        }
+        if (phoneLookup) {
+            query.add(new BoostQuery(new PrefixQuery(new Term(PHONE, digits)), 3f), BooleanClause.Occur.SHOULD);
+        }
+        if (type != null) {
+            query.add(new TermQuery(new Term(TYPE, type.name())), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> words = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                words.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return words;
+    }
+
+    private static Document document(SearchHitDTO.Type type, Integer id) {
+        Document doc = new Document();
+        doc.add(new StringField(KEY, key(type, id).text(), Field.Store.NO));
+        doc.add(new StringField(TYPE, type.name(), Field.Store.YES));
+        doc.add(new StoredField(ID, id));
+        return doc;
+    }
+
+    private void update(SearchHitDTO.Type type, Integer id, Document doc) {
+        try {
+            writer.updateDocument(key(type, id), doc);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Term key(SearchHitDTO.Type type, Integer id) {
+        return new Term(KEY, type.name().toLowerCase(Locale.ROOT) + ":" + id);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        analyzer.close();
+    }
+}
@@ -0,0 +1,161 @@
+package com.sms.search;
+
+import com.sms.constants.SMSConstants;
+import com.sms.dto.SearchHitDTO;
+import com.sms.entity.Course;
+import com.sms.entity.Student;
+import com.sms.event.CoursesChangedEvent;
+import com.sms.event.StudentsChangedEvent;
+import com.sms.repository.CourseRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.repository.projection.CourseSummary;
+import com.sms.repository.projection.StudentSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps {@link SearchIndex} and the student {@link TypeaheadIndex} in step with the database. Both
+ * are filled from scratch once the application is up, then the ids named by committed change events
+ * are read back and re-indexed on the task executor, so writes don't wait on the indexes and a
+ * search can trail a write by a few milliseconds. Ids are only marked dirty; a single drain at a time reads their current rows, so
+ * a burst of edits to one student costs one lookup and the index can't end up on an older version.
+ */
+@Slf4j
+@Component
+public class SearchIndexListener {
+
+    private final SearchIndex searchIndex;
+    private final TypeaheadIndex typeaheadIndex;
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final TaskExecutor taskExecutor;
+    private final Set<Integer> dirtyStudents = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> dirtyCourses = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    // the rebuild and the drains each refresh only once they are done
+    private final Object writeLock = new Object();
+
+    public SearchIndexListener(SearchIndex searchIndex, TypeaheadIndex typeaheadIndex,
+                               StudentRepository studentRepository, CourseRepository courseRepository,
+                               @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.searchIndex = searchIndex;
+        this.typeaheadIndex = typeaheadIndex;
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        int students = 0;
+        int courses = 0;
+        synchronized (writeLock) {
+            searchIndex.deleteAll();
+            typeaheadIndex.clear();
+            // keyset pages, so the rebuild never holds a cursor or a transaction open
+            List<StudentSummary> studentPage;
+            int after = 0;
+            do {
+                studentPage = studentRepository.findSummariesByStatusEqualsAndStudentIdGreaterThanOrderByStudentIdAsc(
+                        Student.Status.Active, after, Limit.of(SMSConstants.SEARCH_INDEX_BATCH_SIZE));
+                searchIndex.indexStudents(studentPage);
+                typeaheadIndex.put(studentPage);
+                students += studentPage.size();
+                after = studentPage.isEmpty() ? after : studentPage.getLast().studentId();
+            } while (studentPage.size() == SMSConstants.SEARCH_INDEX_BATCH_SIZE);
+
+            List<CourseSummary> coursePage;
+            after = 0;
+            do {
+                coursePage = courseRepository.findSummariesByStatusEqualsAndCourseIdGreaterThanOrderByCourseIdAsc(
+                        Course.Status.Active, after, Limit.of(SMSConstants.SEARCH_INDEX_BATCH_SIZE));
+                searchIndex.indexCourses(coursePage);
+                courses += coursePage.size();
+                after = coursePage.isEmpty() ? after : coursePage.getLast().courseId();
+            } while (coursePage.size() == SMSConstants.SEARCH_INDEX_BATCH_SIZE);
+            searchIndex.refresh();
+        }
+        log.info("Search index rebuilt with {} students and {} courses in {} ms",
+                students, courses, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener
+    public void onStudentsChanged(StudentsChangedEvent event) {
+        dirtyStudents.addAll(event.studentIds());
+        scheduleDrain();
+    }
+
+    @TransactionalEventListener
+    public void onCoursesChanged(CoursesChangedEvent event) {
+        dirtyCourses.addAll(event.courseIds());
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            taskExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            synchronized (writeLock) {
+                List<Integer> studentIds;
+                while (!(studentIds = take(dirtyStudents)).isEmpty()) {
+                    List<StudentSummary> active = studentRepository.findSummariesByStudentIdInAndStatusEquals(
+                            studentIds, Student.Status.Active);
+                    searchIndex.indexStudents(active);
+                    typeaheadIndex.put(active);
+                    Set<Integer> gone = new HashSet<>(studentIds);
+                    active.forEach(student -> gone.remove(student.studentId()));
+                    searchIndex.delete(SearchHitDTO.Type.STUDENT, gone);
+                    typeaheadIndex.remove(gone);
+                }
+                List<Integer> courseIds;
+                while (!(courseIds = take(dirtyCourses)).isEmpty()) {
+                    List<CourseSummary> active = courseRepository.findSummariesByCourseIdInAndStatusEquals(
+                            courseIds, Course.Status.Active);
+                    searchIndex.indexCourses(active);
+                    Set<Integer> gone = new HashSet<>(courseIds);
+                    active.forEach(course -> gone.remove(course.courseId()));
+                    searchIndex.delete(SearchHitDTO.Type.COURSE, gone);
+                }
+                searchIndex.refresh();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Search index update failed, the affected rows catch up on their next change or restart", ex);
+        } finally {
+            draining.set(false);
+        }
+        // ids marked between the last take and clearing the flag found a drain still running
+        if (!dirtyStudents.isEmpty() || !dirtyCourses.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    // removes up to one batch of ids before their rows are read, so a change committed after the read marks them again
+    private static List<Integer> take(Set<Integer> dirty) {
+        List<Integer> ids = new ArrayList<>();
+        Iterator<Integer> it = dirty.iterator();
+        while (it.hasNext() && ids.size() < SMSConstants.SEARCH_INDEX_BATCH_SIZE) {
+            ids.add(it.next());
+            it.remove();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,195 @@
+package com.sms.search;
+
+import com.sms.constants.SMSConstants;
+import com.sms.dto.StudentSuggestionDTO;
+import com.sms.repository.projection.StudentSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * As-you-type lookup of active students by the start of their first name, last name or email.
+ * Terms are kept in a sorted map, each with a sorted {@code int[]} of student ids, so a prefix
+ * is one seek plus a walk over the matching terms that stops at the requested number of students.
+ * The walk visits at most {@link SMSConstants#TYPEAHEAD_SCAN_LIMIT} ids, which bounds a lookup no
+ * matter how common the prefix is.
+ * <p>
+ * Writes are serialized and replace a term's id array instead of changing it, so lookups run
+ * without locks against whatever arrays they find. Memory is bounded by {@code sms.typeahead.max-students}
+ * and by cutting terms to {@link SMSConstants#TYPEAHEAD_MAX_TERM_LENGTH} characters; students past
+ * the limit are left out until others are removed or the index is rebuilt.
+ */
+@Slf4j
+@Component
+public class TypeaheadIndex {
+
+    private static final int[] NO_IDS = new int[0];
+
+    private final ConcurrentSkipListMap<String, int[]> postings = new ConcurrentSkipListMap<>();
+    private final Map<Integer, Entry> students = new ConcurrentHashMap<>();
+    private final int maxStudents;
+    private boolean budgetWarned;
+
+    public TypeaheadIndex(@Value("${sms.typeahead.max-students:500000}") int maxStudents) {
+        this.maxStudents = maxStudents;
+    }
+
+    public synchronized void put(Collection<StudentSummary> summaries) {
+        for (StudentSummary student : summaries) {
+            Entry previous = students.get(student.studentId());
+            if (previous == null && students.size() >= maxStudents) {
+                if (!budgetWarned) {
+                    log.warn("Typeahead index is at its limit of {} students, newer students won't be suggested", maxStudents);
+                    budgetWarned = true;
+                }
+                continue;
+            }
+            Entry entry = new Entry(student.firstName(), student.lastName(), student.email(),
+                    terms(student.firstName() + " " + student.lastName(), student.email()));
+            // the entry goes in before its postings, so a lookup never finds an id it can't show
+            students.put(student.studentId(), entry);
+            if (previous != null) {
+                Set<String> stale = new HashSet<>(Arrays.asList(previous.terms()));
+                stale.removeAll(Arrays.asList(entry.terms()));
+                stale.forEach(term -> removePosting(term, student.studentId()));
+            }
+            for (String term : entry.terms()) {
+                addPosting(term, student.studentId());
+            }
+        }
+    }
+
+    public synchronized void remove(Collection<Integer> studentIds) {
+        for (Integer studentId : studentIds) {
+            Entry entry = students.get(studentId);
+            if (entry != null) {
+                for (String term : entry.terms()) {
+                    removePosting(term, studentId);
+                }
+                students.remove(studentId);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        students.clear();
+        budgetWarned = false;
+    }
+
+    public int size() {
+        return students.size();
+    }
+
+    /**
+     * Students with a name or email word starting with every word of the query, in term order and
+     * then by id. Only the longest query word is looked up; the others are checked against the
+     * candidates it finds.
+     */
+    public List<StudentSuggestionDTO> suggest(String query, int limit) {
+        List<String> words = words(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        String lead = words.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+
+        List<StudentSuggestionDTO> suggestions = new ArrayList<>(limit);
+        Set<Integer> seen = new HashSet<>();
+        int scanned = 0;
+        for (int[] ids : postings.subMap(lead, true, lead + Character.MAX_VALUE, false).values()) {
+            for (int id : ids) {
+                if (++scanned > SMSConstants.TYPEAHEAD_SCAN_LIMIT) {
+                    return suggestions;
+                }
+                Entry entry = students.get(id);
+                if (!seen.add(id) || entry == null || !entry.matchesAll(words)) {
+                    continue;
+                }
+                suggestions.add(new StudentSuggestionDTO(id, entry.firstName(), entry.lastName(), entry.email()));
+                if (suggestions.size() == limit) {
+                    return suggestions;
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    private void addPosting(String term, int id) {
+        postings.compute(term, (key, ids) -> {
+            int[] current = ids == null ? NO_IDS : ids;
+            int at = Arrays.binarySearch(current, id);
+            if (at >= 0) {
+                return current;
+            }
+            int insertAt = -at - 1;
+            int[] updated = new int[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, insertAt);
+            updated[insertAt] = id;
+            System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+            return updated;
+        });
+    }
+
+    private void removePosting(String term, int id) {
+        postings.computeIfPresent(term, (key, ids) -> {
+            int at = Arrays.binarySearch(ids, id);
+            if (at < 0) {
+                return ids;
+            }
+            if (ids.length == 1) {
+                return null;
+            }
+            int[] updated = new int[ids.length - 1];
+            System.arraycopy(ids, 0, updated, 0, at);
+            System.arraycopy(ids, at + 1, updated, at, ids.length - at - 1);
+            return updated;
+        });
+    }
+
+    // the words of the name, plus the whole email so "ada.l" and "ada.lovelace@" keep matching as they are typed
+    private static String[] terms(String name, String email) {
+        Set<String> terms = new LinkedHashSet<>(words(name));
+        terms.add(truncate(email.toLowerCase(Locale.ROOT)));
+        return terms.toArray(String[]::new);
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[\\s\\-']+")) {
+            if (!word.isEmpty()) {
+                words.add(truncate(word));
+            }
+        }
+        return words;
+    }
+
+    private static String truncate(String term) {
+        return term.length() > SMSConstants.TYPEAHEAD_MAX_TERM_LENGTH
+                ? term.substring(0, SMSConstants.TYPEAHEAD_MAX_TERM_LENGTH) : term;
+    }
+
+    private record Entry(String firstName, String lastName, String email, String[] terms) {
+
+        boolean matchesAll(List<String> words) {
+            for (String word : words) {
+                if (Arrays.stream(terms).noneMatch(term -> term.startsWith(word))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.sms.service;
 
 import com.sms.dto.CourseDTO;
+import com.sms.dto.CourseRosterEntryDTO;
+import com.sms.dto.FieldSelectionDTO;
+import com.sms.dto.PageResponseDTO;
+import com.sms.dto.ResourceVersionDTO;
 import org.jspecify.annotations.Nullable;
 
 import java.util.List;
@@ -8,8 +12,27 @@ import java.util.List;
 public interface ICourseService {
     @Nullable List<CourseDTO> getAllCourses();
 
+    /**
+     * Validators for {@link #getAllCourses}, taken from the same cached rows.
+     */
+    ResourceVersionDTO getCatalogVersion();
+
+    PageResponseDTO<CourseDTO> getCoursesPage(@Nullable Integer after, @Nullable Integer limit);
+
     CourseDTO getCourseById(Integer id);
 
+    /**
+     * Only the selected properties are filled in; the enrolled students are read from the roster when expanded.
+     */
+    CourseDTO getCourseById(Integer id, FieldSelectionDTO selection);
+
+    /**
+     * Validators for {@link #getCourseById}; null when there is no such active course.
+     */
+    @Nullable ResourceVersionDTO getCourseVersion(Integer id);
+
+    PageResponseDTO<CourseRosterEntryDTO> getCourseRoster(Integer id, @Nullable Integer after, @Nullable Integer limit);
+
     CourseDTO createCourse(CourseDTO request);
 
     @Nullable CourseDTO updateCourse(Integer id, CourseDTO request);
@@ -0,0 +1,20 @@
+package com.sms.service;
+
+import com.sms.dto.SearchHitDTO;
+import com.sms.dto.StudentSuggestionDTO;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+public interface ISearchService {
+
+    /**
+     * Best matches first, over active students and courses, or only one of the two when a type is given.
+     */
+    List<SearchHitDTO> search(String query, SearchHitDTO.@Nullable Type type, @Nullable Integer limit);
+
+    /**
+     * Active students whose name or email words start with the typed words, for autocomplete.
+     */
+    List<StudentSuggestionDTO> suggestStudents(String prefix, @Nullable Integer limit);
+}
@@ -0,0 +1,11 @@
+package com.sms.service;
+
+import com.sms.dto.BulkDeactivationJobDTO;
+import com.sms.dto.BulkDeactivationRequestDTO;
+
+public interface IStudentDeactivationService {
+
+    BulkDeactivationJobDTO startDeactivation(BulkDeactivationRequestDTO request);
+
+    BulkDeactivationJobDTO getDeactivationJob(String jobId);
+}
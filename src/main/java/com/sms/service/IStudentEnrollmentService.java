@@ -1,4 +1,10 @@
 package com.sms.service;
 
-public class IStudentEnrollmentService {
+import com.sms.dto.BulkEnrollmentResultDTO;
+
+import java.util.List;
+
+public interface IStudentEnrollmentService {
+
+    BulkEnrollmentResultDTO enrollStudents(Integer courseId, List<Integer> studentIds);
 }
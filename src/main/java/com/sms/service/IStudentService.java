@@ -1,18 +1,49 @@
 package com.sms.service;
 
+import com.sms.dto.BulkImportResultDTO;
+import com.sms.dto.FieldSelectionDTO;
+import com.sms.dto.PageResponseDTO;
+import com.sms.dto.ResourceVersionDTO;
 import com.sms.dto.StudentDTO;
 import jakarta.validation.Valid;
 import org.jspecify.annotations.Nullable;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IStudentService {
     @Nullable List<StudentDTO> getAllStudents();
 
+    /**
+     * Only the selected properties are filled in, and the enrolled courses are only queried when expanded.
+     */
+    @Nullable List<StudentDTO> getAllStudents(FieldSelectionDTO selection);
+
+    PageResponseDTO<StudentDTO> getStudentsPage(@Nullable Integer after, @Nullable Integer limit);
+
+    PageResponseDTO<StudentDTO> getStudentsPage(@Nullable Integer after, @Nullable Integer limit, FieldSelectionDTO selection);
+
+    void exportStudents(Consumer<StudentDTO> sink);
+
     @Nullable StudentDTO getStudentById(Integer id);
 
+    @Nullable StudentDTO getStudentById(Integer id, FieldSelectionDTO selection);
+
+    /**
+     * Validators for {@link #getStudentById}, from one aggregate query; null when there is no such active student.
+     */
+    @Nullable ResourceVersionDTO getStudentVersion(Integer id);
+
     StudentDTO createStudent(@Valid StudentDTO request);
 
+    BulkImportResultDTO importStudents(List<StudentDTO> requests);
+
+    /**
+     * Like {@link #importStudents(List)}, with the row numbers to report for each request, such as
+     * the line it starts on in an uploaded file.
+     */
+    BulkImportResultDTO importStudents(List<StudentDTO> requests, List<Integer> rowNumbers);
+
     @Nullable StudentDTO updateStudent(Integer id, @Valid StudentDTO request);
 
     StudentDTO enrollInCourse(Integer studentId, Integer courseId);
@@ -20,4 +51,6 @@ public interface IStudentService {
     StudentDTO unenrollFromCourse(Integer studentId, Integer courseId);
 
     void deleteStudent(Integer id);
+
+    int deactivateStudents(List<Integer> ids);
 }
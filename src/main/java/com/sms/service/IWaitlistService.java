@@ -0,0 +1,21 @@
+package com.sms.service;
+
+import com.sms.dto.PageResponseDTO;
+import com.sms.dto.WaitlistEntryDTO;
+import org.jspecify.annotations.Nullable;
+
+public interface IWaitlistService {
+
+    WaitlistEntryDTO joinWaitlist(Integer studentId, Integer courseId);
+
+    void leaveWaitlist(Integer studentId, Integer courseId);
+
+    PageResponseDTO<WaitlistEntryDTO> getWaitlist(Integer courseId, @Nullable Integer after, @Nullable Integer limit);
+
+    /**
+     * Moves the head of the course's queue into its free seats, at most one batch per call.
+     *
+     * @return the number of queue entries taken off the head, 0 once there is nothing left to do
+     */
+    int promoteNext(Integer courseId);
+}
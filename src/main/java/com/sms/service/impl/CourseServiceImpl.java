@@ -1,17 +1,31 @@
 package com.sms.service.impl;
 
+import com.sms.constants.SMSConstants;
+import com.sms.datasource.ReplicaRead;
 import com.sms.dto.CourseDTO;
+import com.sms.dto.CourseRosterEntryDTO;
+import com.sms.dto.FieldSelectionDTO;
+import com.sms.dto.PageResponseDTO;
+import com.sms.dto.ResourceVersionDTO;
 import com.sms.entity.Course;
-import com.sms.entity.Enrollment;
+import com.sms.event.CoursesChangedEvent;
+import com.sms.event.SeatsReleasedEvent;
 import com.sms.exception.ResourceNotFoundException;
 import com.sms.mapper.CourseMapper;
+import com.sms.mapper.VersionMapper;
 import com.sms.repository.CourseRepository;
 import com.sms.repository.StudentEnrollmentRepository;
+import com.sms.repository.projection.CourseSummary;
+import com.sms.repository.projection.RosterEntry;
 import com.sms.service.ICourseService;
-import jakarta.transaction.Transactional;
 import org.jspecify.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -24,50 +38,141 @@ public class CourseServiceImpl implements ICourseService {
     @Autowired
     StudentEnrollmentRepository studentEnrollmentRepository;
 
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
     @Override
     public @Nullable List<CourseDTO> getAllCourses() {
         List<CourseDTO> coursList = new ArrayList<>();
-       courseRepository.findAllByStatusEquals(Course.Status.Active).forEach(course -> {
+       courseRepository.findSummariesByStatusEqualsOrderByCourseIdAsc(Course.Status.Active).forEach(course -> {
                    coursList.add(CourseMapper.mapToCourseDTO(course, new CourseDTO()));
                });
         return coursList;
     }
 
+    @Override
+    public ResourceVersionDTO getCatalogVersion() {
+        return VersionMapper.mapToResourceVersion(
+                courseRepository.findSummariesByStatusEqualsOrderByCourseIdAsc(Course.Status.Active));
+    }
+
+    @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public PageResponseDTO<CourseDTO> getCoursesPage(@Nullable Integer after, @Nullable Integer limit) {
+        int pageSize = limit == null ? SMSConstants.DEFAULT_PAGE_LIMIT : Math.clamp(limit, 1, SMSConstants.MAX_PAGE_LIMIT);
+        // one extra row tells us whether another page follows without a count query
+        List<CourseSummary> courses = courseRepository.findSummariesByStatusEqualsAndCourseIdGreaterThanOrderByCourseIdAsc(
+                Course.Status.Active, after == null ? 0 : after, Limit.of(pageSize + 1));
+        Integer nextCursor = null;
+        if (courses.size() > pageSize) {
+            courses = courses.subList(0, pageSize);
+            nextCursor = courses.getLast().courseId();
+        }
+        List<CourseDTO> courseList = new ArrayList<>();
+        courses.forEach(course -> {
+            // only on the uncached page; the cached full list would serve stale counts
+            CourseDTO courseDTO = CourseMapper.mapToCourseDTO(course, new CourseDTO());
+            courseDTO.setEnrolledCount(course.enrolledCount());
+            courseList.add(courseDTO);
+        });
+        return new PageResponseDTO<>(courseList, nextCursor);
+    }
+
     @Override
     public CourseDTO getCourseById(Integer id) {
-        Course course = courseRepository.findByCourseIdAndStatusEquals(id, Course.Status.Active).orElseThrow(
+        return getCourseById(id, FieldSelectionDTO.ALL_COURSE_FIELDS);
+    }
+
+    @Override
+    public CourseDTO getCourseById(Integer id, FieldSelectionDTO selection) {
+        Course course = courseRepository.findActiveById(id).orElseThrow(
                 () -> new ResourceNotFoundException("Course","courseId",id.toString())
         );
-        List<Enrollment> enrollments = studentEnrollmentRepository.findByCourse_CourseId(id);
         CourseDTO courseDTO = CourseMapper.mapToCourseDTO(course,new CourseDTO());
-        return CourseMapper.mapCourseEnrollments(courseDTO,enrollments);
+        if (selection.includes("enrolledCount")) {
+            // the cached entity's counter may be behind, so read the live column by primary key
+            courseDTO.setEnrolledCount(courseRepository.findEnrolledCountByCourseId(id).orElse(0));
+        }
+        if (selection.isEnrollments()) {
+            // capacity may be null, so the nested roster stops at one full roster page and hands
+            // out the cursor to read the rest from /api/course/{id}/students
+            List<RosterEntry> roster = studentEnrollmentRepository.findRosterByCourseId(
+                    id, 0, Limit.of(SMSConstants.MAX_PAGE_LIMIT + 1));
+            if (roster.size() > SMSConstants.MAX_PAGE_LIMIT) {
+                roster = roster.subList(0, SMSConstants.MAX_PAGE_LIMIT);
+                courseDTO.setEnrolledStudentsNextCursor(roster.getLast().studentId());
+            }
+            CourseMapper.mapCourseRoster(courseDTO, roster);
+        }
+        return CourseMapper.retainFields(courseDTO, selection);
+
+    }
+
+    @Override
+    public @Nullable ResourceVersionDTO getCourseVersion(Integer id) {
+        // updatedAt from the cached entity getCourseById will serve, not the table, which can be ahead of the cache
+        return courseRepository.findActiveById(id)
+                .map(course -> VersionMapper.mapToResourceVersion(id, course.getUpdatedAt(),
+                        courseRepository.findEnrolledCountByCourseId(id).orElse(0)))
+                .orElse(null);
+    }
 
+    @Override
+    public PageResponseDTO<CourseRosterEntryDTO> getCourseRoster(Integer id, @Nullable Integer after, @Nullable Integer limit) {
+        courseRepository.findActiveById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Course","courseId",id.toString())
+        );
+        int pageSize = limit == null ? SMSConstants.DEFAULT_PAGE_LIMIT : Math.clamp(limit, 1, SMSConstants.MAX_PAGE_LIMIT);
+        // one extra row tells us whether another page follows without a count query
+        List<RosterEntry> roster = studentEnrollmentRepository.findRosterByCourseId(
+                id, after == null ? 0 : after, Limit.of(pageSize + 1));
+        Integer nextCursor = null;
+        if (roster.size() > pageSize) {
+            roster = roster.subList(0, pageSize);
+            nextCursor = roster.getLast().studentId();
+        }
+        return new PageResponseDTO<>(roster.stream().map(CourseMapper::mapToRosterEntryDTO).toList(), nextCursor);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = SMSConstants.ACTIVE_COURSES_CACHE, allEntries = true)
     public CourseDTO createCourse(CourseDTO request) {
-        Course course =  CourseMapper.mapToCourse(request,new Course());
-       return CourseMapper.mapToCourseDTO(courseRepository.save(course),new CourseDTO());
+        Course course =  courseRepository.save(CourseMapper.mapToCourse(request,new Course()));
+        eventPublisher.publishEvent(CoursesChangedEvent.of(List.of(course.getCourseId())));
+       return CourseMapper.mapToCourseDTO(course,new CourseDTO());
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = SMSConstants.COURSE_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = SMSConstants.ACTIVE_COURSES_CACHE, allEntries = true)
+    })
     public @Nullable CourseDTO updateCourse(Integer id, CourseDTO request) {
         Course course = courseRepository.findByCourseIdAndStatusEquals(id, Course.Status.Active).orElseThrow(
                 () -> new ResourceNotFoundException("Course","courseId",id.toString())
         );
         course = courseRepository.save( CourseMapper.mapToCourse(request,course));
+        // a raised capacity makes room for the waitlist
+        eventPublisher.publishEvent(SeatsReleasedEvent.of(List.of(id)));
+        eventPublisher.publishEvent(CoursesChangedEvent.of(List.of(id)));
         return  CourseMapper.mapToCourseDTO(course,new CourseDTO());
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = SMSConstants.COURSE_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = SMSConstants.ACTIVE_COURSES_CACHE, allEntries = true)
+    })
     public void deleteCourse(Integer id) {
         Course course = courseRepository.findByCourseIdAndStatusEquals(id, Course.Status.Active).orElseThrow(
                 () -> new ResourceNotFoundException("Course","courseId",id.toString())
         );
         course.setStatus(Course.Status.Inactive);
         courseRepository.save(course);
+        eventPublisher.publishEvent(CoursesChangedEvent.of(List.of(id)));
     }
 }
@@ -0,0 +1,33 @@
+package com.sms.service.impl;
+
+import com.sms.constants.SMSConstants;
+import com.sms.dto.SearchHitDTO;
+import com.sms.dto.StudentSuggestionDTO;
+import com.sms.search.SearchIndex;
+import com.sms.search.TypeaheadIndex;
+import com.sms.service.ISearchService;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SearchServiceImpl implements ISearchService {
+
+    private final SearchIndex searchIndex;
+    private final TypeaheadIndex typeaheadIndex;
+
+    @Override
+    public List<SearchHitDTO> search(String query, SearchHitDTO.@Nullable Type type, @Nullable Integer limit) {
+        int maxHits = limit == null ? SMSConstants.DEFAULT_SEARCH_LIMIT : Math.clamp(limit, 1, SMSConstants.MAX_SEARCH_LIMIT);
+        return searchIndex.search(query, type, maxHits);
+    }
+
+    @Override
+    public List<StudentSuggestionDTO> suggestStudents(String prefix, @Nullable Integer limit) {
+        int maxSuggestions = limit == null ? SMSConstants.DEFAULT_SUGGEST_LIMIT : Math.clamp(limit, 1, SMSConstants.MAX_SUGGEST_LIMIT);
+        return typeaheadIndex.suggest(prefix, maxSuggestions);
+    }
+}
@@ -0,0 +1,120 @@
+package com.sms.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sms.constants.SMSConstants;
+import com.sms.dto.BulkDeactivationJobDTO;
+import com.sms.dto.BulkDeactivationRequestDTO;
+import com.sms.entity.Student;
+import com.sms.exception.ResourceNotFoundException;
+import com.sms.repository.StudentRepository;
+import com.sms.service.IStudentDeactivationService;
+import com.sms.service.IStudentService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs batch deactivations in the background, one transaction per chunk of students so that
+ * locks stay short and progress is visible while the job runs. Jobs are kept in memory for a
+ * day after they were started.
+ */
+@Service
+public class StudentDeactivationServiceImpl implements IStudentDeactivationService {
+
+    private final IStudentService studentService;
+    private final StudentRepository studentRepository;
+    private final TaskExecutor taskExecutor;
+    private final Cache<String, Job> jobs = Caffeine.newBuilder().expireAfterWrite(Duration.ofDays(1)).build();
+
+    public StudentDeactivationServiceImpl(IStudentService studentService, StudentRepository studentRepository,
+                                          @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.studentService = studentService;
+        this.studentRepository = studentRepository;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public BulkDeactivationJobDTO startDeactivation(BulkDeactivationRequestDTO request) {
+        List<Integer> ids = request.getStudentIds() == null ? null : new ArrayList<>(new LinkedHashSet<>(request.getStudentIds()));
+        int total = ids != null ? ids.size()
+                : (int) studentRepository.countByStatusEqualsAndEnrollmentDateBefore(Student.Status.Active, request.getEnrolledBefore());
+        Job job = new Job(UUID.randomUUID().toString(), total);
+        jobs.put(job.id, job);
+        taskExecutor.execute(() -> run(job, ids, request.getEnrolledBefore()));
+        return job.toDTO();
+    }
+
+    @Override
+    public BulkDeactivationJobDTO getDeactivationJob(String jobId) {
+        Job job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Deactivation job", "jobId", jobId);
+        }
+        return job.toDTO();
+    }
+
+    private void run(Job job, List<Integer> ids, LocalDate enrolledBefore) {
+        try {
+            if (ids != null) {
+                for (int from = 0; from < ids.size(); from += SMSConstants.DEACTIVATION_CHUNK_SIZE) {
+                    deactivateChunk(job, ids.subList(from, Math.min(from + SMSConstants.DEACTIVATION_CHUNK_SIZE, ids.size())));
+                }
+            } else {
+                // deactivated students drop out of the filter; the cursor keeps the walk moving past any that did not change
+                int after = 0;
+                List<Integer> chunk;
+                while (!(chunk = studentRepository.findIdsByStatusAndEnrollmentDateBefore(Student.Status.Active,
+                        enrolledBefore, after, Limit.of(SMSConstants.DEACTIVATION_CHUNK_SIZE))).isEmpty()) {
+                    deactivateChunk(job, chunk);
+                    after = chunk.getLast();
+                }
+            }
+            job.finish(BulkDeactivationJobDTO.Status.COMPLETED, null);
+        } catch (RuntimeException ex) {
+            job.finish(BulkDeactivationJobDTO.Status.FAILED, ex.getMessage());
+        }
+    }
+
+    private void deactivateChunk(Job job, List<Integer> chunk) {
+        // IStudentService.deactivateStudents is transactional, so each chunk commits on its own
+        job.deactivated += studentService.deactivateStudents(chunk);
+        job.processed += chunk.size();
+    }
+
+    private static final class Job {
+        private final String id;
+        private final int total;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        // written by the worker thread only, read by status requests
+        private volatile int processed;
+        private volatile int deactivated;
+        private volatile BulkDeactivationJobDTO.Status status = BulkDeactivationJobDTO.Status.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(String id, int total) {
+            this.id = id;
+            this.total = total;
+        }
+
+        private void finish(BulkDeactivationJobDTO.Status status, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        private BulkDeactivationJobDTO toDTO() {
+            return new BulkDeactivationJobDTO(id, status, total, processed, deactivated, startedAt, finishedAt, error);
+        }
+    }
+}
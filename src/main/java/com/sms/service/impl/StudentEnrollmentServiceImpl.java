@@ -1,4 +1,80 @@
 package com.sms.service.impl;
 
-public class StudentEnrollmentServiceImpl {
+import com.sms.dto.BulkEnrollmentResultDTO;
+import com.sms.dto.EnrollmentEventDTO;
+import com.sms.entity.Course;
+import com.sms.entity.Student;
+import com.sms.exception.ResourceNotFoundException;
+import com.sms.outbox.EnrollmentOutbox;
+import com.sms.repository.CourseRepository;
+import com.sms.repository.EnrollmentBatchRepository;
+import com.sms.repository.StudentEnrollmentRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.repository.WaitlistRepository;
+import com.sms.service.IStudentEnrollmentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class StudentEnrollmentServiceImpl implements IStudentEnrollmentService {
+
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    private final StudentEnrollmentRepository enrollmentRepository;
+    private final EnrollmentBatchRepository enrollmentBatchRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final EnrollmentOutbox enrollmentOutbox;
+
+    @Override
+    @Transactional
+    public BulkEnrollmentResultDTO enrollStudents(Integer courseId, List<Integer> studentIds) {
+        // the row lock keeps single-seat claims on this course waiting until we commit, so the free
+        // seats read here can't be taken from under the batch
+        Course course = courseRepository.findActiveByIdForUpdate(courseId).orElseThrow(
+                () -> new ResourceNotFoundException("Course", "courseId", courseId.toString())
+        );
+        Set<Integer> requested = new LinkedHashSet<>(studentIds);
+        Set<Integer> activeStudents = new HashSet<>(
+                studentRepository.findIdsByStudentIdInAndStatus(requested, Student.Status.Active));
+        Set<Integer> enrolledStudents = new HashSet<>(
+                enrollmentRepository.findStudentIdsByCourseIdAndStudentIdIn(courseId, requested));
+
+        List<Integer> toEnroll = new ArrayList<>();
+        List<Integer> alreadyEnrolled = new ArrayList<>();
+        List<Integer> notFound = new ArrayList<>();
+        for (Integer studentId : requested) {
+            if (!activeStudents.contains(studentId)) {
+                notFound.add(studentId);
+            } else if (enrolledStudents.contains(studentId)) {
+                alreadyEnrolled.add(studentId);
+            } else {
+                toEnroll.add(studentId);
+            }
+        }
+
+        // as with claimSeat, while anyone is waitlisted the free seats belong to the queue
+        int seats = waitlistRepository.existsByCourse_CourseId(courseId) ? 0
+                : course.getCapacity() == null ? toEnroll.size()
+                : Math.clamp((long) course.getCapacity() - course.getEnrolledCount(), 0, toEnroll.size());
+        List<Integer> courseFull = new ArrayList<>(toEnroll.subList(seats, toEnroll.size()));
+        toEnroll = toEnroll.subList(0, seats);
+
+        List<Integer> enrolled = List.of();
+        if (!toEnroll.isEmpty()) {
+            enrolled = enrollmentBatchRepository.insertAll(courseId, toEnroll);
+            if (!enrolled.isEmpty()) {
+                courseRepository.adjustEnrolledCounts(List.of(courseId), enrolled.size());
+                enrollmentOutbox.recordForCourse(EnrollmentEventDTO.Type.ENROLLED, courseId, enrolled);
+            }
+        }
+        return new BulkEnrollmentResultDTO(courseId, enrolled, alreadyEnrolled, notFound, courseFull);
+    }
 }
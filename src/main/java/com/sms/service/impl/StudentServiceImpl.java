@@ -1,22 +1,59 @@
 package com.sms.service.impl;
 
+import com.sms.constants.SMSConstants;
+import com.sms.datasource.ReplicaRead;
+import com.sms.dto.BulkImportResultDTO;
+import com.sms.dto.BulkRowResultDTO;
+import com.sms.dto.CourseDTO;
+import com.sms.dto.EnrollmentEventDTO;
+import com.sms.dto.FieldSelectionDTO;
+import com.sms.dto.PageResponseDTO;
+import com.sms.dto.ResourceVersionDTO;
 import com.sms.dto.StudentDTO;
 import com.sms.entity.Course;
 import com.sms.entity.Enrollment;
 import com.sms.entity.Student;
+import com.sms.event.SeatsReleasedEvent;
+import com.sms.event.StudentsChangedEvent;
+import com.sms.exception.CourseFullException;
 import com.sms.exception.ResourceNotFoundException;
+import com.sms.mapper.CourseMapper;
 import com.sms.mapper.StudentMapper;
+import com.sms.mapper.VersionMapper;
+import com.sms.outbox.EnrollmentOutbox;
 import com.sms.repository.CourseRepository;
+import com.sms.repository.StudentBatchRepository;
 import com.sms.repository.StudentEnrollmentRepository;
 import com.sms.repository.StudentRepository;
+import com.sms.repository.WaitlistRepository;
+import com.sms.repository.projection.EnrolledCourse;
+import com.sms.repository.projection.StudentSummary;
 import com.sms.service.IStudentService;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.Nullable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Component
 @RequiredArgsConstructor
@@ -25,33 +62,199 @@ public class StudentServiceImpl implements IStudentService {
     private final StudentRepository studentRepository;
     private final StudentEnrollmentRepository enrollmentRepository;
     private final CourseRepository courseRepository;
+    private final EntityManager entityManager;
+    private final StudentBatchRepository studentBatchRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EnrollmentOutbox enrollmentOutbox;
 
     @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public @Nullable List<StudentDTO> getAllStudents() {
-        List<StudentDTO> students = new ArrayList<>();
-        studentRepository.findAllByStatusEquals(Student.Status.Active).forEach(student -> {
-            students.add(StudentMapper.mapToStudentDTO(student,new StudentDTO()));
-        });
+        return getAllStudents(FieldSelectionDTO.ALL_STUDENT_FIELDS);
+    }
+
+    @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public @Nullable List<StudentDTO> getAllStudents(FieldSelectionDTO selection) {
+        // the enrollment join is the expensive part, so it only runs when the courses are wanted
+        Map<Integer, List<CourseDTO>> enrolledCourses = selection.isEnrollments()
+                ? groupByStudent(enrollmentRepository.findEnrolledCoursesByStudentStatus(Student.Status.Active))
+                : null;
+        return mapSummaries(studentRepository.findSummariesByStatusEqualsOrderByStudentIdAsc(Student.Status.Active),
+                enrolledCourses, selection);
+    }
+
+    @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public PageResponseDTO<StudentDTO> getStudentsPage(@Nullable Integer after, @Nullable Integer limit) {
+        return getStudentsPage(after, limit, FieldSelectionDTO.ALL_STUDENT_FIELDS);
+    }
+
+    @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public PageResponseDTO<StudentDTO> getStudentsPage(@Nullable Integer after, @Nullable Integer limit,
+                                                       FieldSelectionDTO selection) {
+        int pageSize = limit == null ? SMSConstants.DEFAULT_PAGE_LIMIT : Math.clamp(limit, 1, SMSConstants.MAX_PAGE_LIMIT);
+        // one extra row tells us whether another page follows without a count query
+        List<StudentSummary> summaries = studentRepository.findSummariesByStatusEqualsAndStudentIdGreaterThanOrderByStudentIdAsc(
+                Student.Status.Active, after == null ? 0 : after, Limit.of(pageSize + 1));
+        Integer nextCursor = null;
+        if (summaries.size() > pageSize) {
+            summaries = summaries.subList(0, pageSize);
+            nextCursor = summaries.getLast().studentId();
+        }
+        if (summaries.isEmpty()) {
+            return new PageResponseDTO<>(new ArrayList<>(), nextCursor);
+        }
+        Map<Integer, List<CourseDTO>> enrolledCourses = selection.isEnrollments()
+                ? groupByStudent(enrollmentRepository.findEnrolledCoursesByStudentIdIn(
+                        summaries.stream().map(StudentSummary::studentId).toList()))
+                : null;
+        return new PageResponseDTO<>(mapSummaries(summaries, enrolledCourses, selection), nextCursor);
+    }
+
+    private static Map<Integer, List<CourseDTO>> groupByStudent(List<EnrolledCourse> enrolledCourses) {
+        Map<Integer, List<CourseDTO>> byStudent = new HashMap<>();
+        enrolledCourses.forEach(course -> byStudent.computeIfAbsent(course.studentId(), id -> new ArrayList<>())
+                .add(CourseMapper.mapToCourseDTO(course, new CourseDTO())));
+        return byStudent;
+    }
+
+    // enrolledCourses is null when they weren't asked for
+    private static List<StudentDTO> mapSummaries(List<StudentSummary> summaries,
+                                                 @Nullable Map<Integer, List<CourseDTO>> enrolledCourses,
+                                                 FieldSelectionDTO selection) {
+        List<StudentDTO> students = new ArrayList<>(summaries.size());
+        summaries.forEach(summary -> students.add(StudentMapper.retainFields(StudentMapper.mapToStudentDTO(summary,
+                enrolledCourses == null ? null : enrolledCourses.getOrDefault(summary.studentId(), List.of()),
+                new StudentDTO()), selection)));
         return students;
     }
 
+    @Override
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public void exportStudents(Consumer<StudentDTO> sink) {
+        try (Stream<Student> students = studentRepository.streamAllWithEnrollmentsByStatus(Student.Status.Active)) {
+            students.forEach(student -> {
+                sink.accept(StudentMapper.mapToStudentDTO(student, new StudentDTO()));
+                // written out already, so don't let the persistence context grow with the export
+                entityManager.detach(student);
+            });
+        }
+    }
+
     @Override
     public @Nullable StudentDTO getStudentById(Integer id) {
-       Student student = studentRepository.findByStudentIdAndStatusEquals(id, Student.Status.Active).orElseThrow(
-               () -> new ResourceNotFoundException("Student", "studentId", id.toString())
+        return getStudentById(id, FieldSelectionDTO.ALL_STUDENT_FIELDS);
+    }
 
-       );
-        return StudentMapper.mapToStudentDTO(student,new StudentDTO());
+    @Override
+    public @Nullable StudentDTO getStudentById(Integer id, FieldSelectionDTO selection) {
+        // the enrollments are fetch joined only when they are going to be mapped
+        Optional<Student> found = selection.isEnrollments()
+                ? studentRepository.findWithEnrollmentsByStudentIdAndStatusEquals(id, Student.Status.Active)
+                : studentRepository.findByStudentIdAndStatusEquals(id, Student.Status.Active);
+        Student student = found.orElseThrow(
+                () -> new ResourceNotFoundException("Student", "studentId", id.toString())
+        );
+        StudentDTO dto = selection.isEnrollments()
+                ? StudentMapper.mapToStudentDTO(student, new StudentDTO())
+                : StudentMapper.mapToStudentDTO(student, null, new StudentDTO());
+        return StudentMapper.retainFields(dto, selection);
+    }
+
+    @Override
+    public @Nullable ResourceVersionDTO getStudentVersion(Integer id) {
+        return studentRepository.findVersionByStudentId(id).map(VersionMapper::mapToResourceVersion).orElse(null);
     }
 
     @Override
     @Transactional
     public StudentDTO createStudent(StudentDTO request) {
-        Student student =  StudentMapper.mapToStudent(request,new Student());
-        return StudentMapper.mapToStudentDTO(studentRepository.save(student),new StudentDTO());
+        Student student = studentRepository.save(StudentMapper.mapToStudentDetails(request, new Student()));
+        eventPublisher.publishEvent(StudentsChangedEvent.of(List.of(student.getStudentId())));
+        // courses sent along take their seats like any other enrollment, not as cascaded rows
+        if (request.getEnrolledCourses() != null && !request.getEnrolledCourses().isEmpty()) {
+            updateEnrollments(student, request.getEnrolledCourses());
+            return mapWithEnrolledCourses(student);
+        }
+        return StudentMapper.mapToStudentDTO(student,new StudentDTO());
 
     }
 
+    @Override
+    @Transactional
+    public BulkImportResultDTO importStudents(List<StudentDTO> requests) {
+        return importStudents(requests, IntStream.rangeClosed(1, requests.size()).boxed().toList());
+    }
+
+    @Override
+    @Transactional
+    public BulkImportResultDTO importStudents(List<StudentDTO> requests, List<Integer> rowNumbers) {
+        // one lookup each for emails and phones that are already taken, instead of a query per row
+        Set<String> takenEmails = studentRepository.findExistingEmails(requests.stream()
+                        .map(StudentDTO::getEmail).filter(email -> email != null && !email.isBlank()).toList())
+                .stream().map(email -> email.toLowerCase(Locale.ROOT)).collect(Collectors.toCollection(HashSet::new));
+        Set<String> takenPhones = new HashSet<>(studentRepository.findExistingPhones(requests.stream()
+                .map(StudentDTO::getPhoneNumber).filter(phone -> phone != null && !phone.isBlank()).toList()));
+
+        List<BulkRowResultDTO> rows = new ArrayList<>(requests.size());
+        List<BulkRowResultDTO> createdRows = new ArrayList<>();
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            StudentDTO request = requests.get(i);
+            String rejection = validateImportRow(request, takenEmails, takenPhones);
+            BulkRowResultDTO row = new BulkRowResultDTO(rowNumbers.get(i),
+                    rejection == null ? BulkRowResultDTO.Status.CREATED : BulkRowResultDTO.Status.REJECTED,
+                    null, rejection);
+            rows.add(row);
+            if (rejection == null) {
+                Student student = StudentMapper.mapToStudent(request, new Student());
+                if (student.getPhone() != null && student.getPhone().isBlank()) {
+                    student.setPhone(null);
+                }
+                students.add(student);
+                createdRows.add(row);
+            }
+        }
+
+        List<Integer> ids = studentBatchRepository.insertAll(students);
+        for (int i = 0; i < ids.size() && i < createdRows.size(); i++) {
+            createdRows.get(i).setId(ids.get(i));
+        }
+        if (!ids.isEmpty()) {
+            eventPublisher.publishEvent(StudentsChangedEvent.of(ids));
+        }
+        return new BulkImportResultDTO(requests.size(), createdRows.size(),
+                requests.size() - createdRows.size(), rows);
+    }
+
+    private @Nullable String validateImportRow(StudentDTO request, Set<String> takenEmails, Set<String> takenPhones) {
+        Set<ConstraintViolation<StudentDTO>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        // the sets also pick up earlier rows of the same request, so in-file duplicates are rejected too
+        if (!takenEmails.add(request.getEmail().toLowerCase(Locale.ROOT))) {
+            return "email: Student with this email already exists";
+        }
+        String phone = request.getPhoneNumber();
+        if (phone != null && !phone.isBlank() && !takenPhones.add(phone)) {
+            return "phoneNumber: Student with this mobile number already exists";
+        }
+        return null;
+    }
+
     @Override
     @Transactional
     public @Nullable StudentDTO updateStudent(Integer id, StudentDTO request) {
@@ -59,11 +262,48 @@ public class StudentServiceImpl implements IStudentService {
                 () -> new ResourceNotFoundException("Student", "studentId", id.toString())
 
         );
-        student.getEnrollments().clear();
-        enrollmentRepository.deleteByStudent_StudentId(id);
+        Student updatedStudent = studentRepository.saveAndFlush(StudentMapper.mapToStudentDetails(request, student));
+        eventPublisher.publishEvent(StudentsChangedEvent.of(List.of(id)));
+        // null leaves the enrollments alone, otherwise the list is the full set of courses to keep
+        if (request.getEnrolledCourses() != null) {
+            updateEnrollments(updatedStudent, request.getEnrolledCourses());
+        }
+        return mapWithEnrolledCourses(updatedStudent);
+    }
+
+    private void updateEnrollments(Student student, List<CourseDTO> enrolledCourses) {
+        Set<Integer> requested = enrolledCourses.stream().map(CourseDTO::getId).filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<Integer> current = new HashSet<>(enrollmentRepository.findCourseIdsByStudentId(student.getStudentId()));
 
-        Student updatedStudent  = studentRepository.saveAndFlush(StudentMapper.mapToStudent(request,student));
-        return StudentMapper.mapToStudentDTO(updatedStudent,new StudentDTO());
+        Set<Integer> removed = new HashSet<>(current);
+        removed.removeAll(requested);
+        if (!removed.isEmpty()) {
+            enrollmentRepository.deleteByStudentIdAndCourseIdIn(student.getStudentId(), removed);
+            courseRepository.adjustEnrolledCounts(removed, -1);
+            studentRepository.touch(student.getStudentId(), LocalDateTime.now());
+            enrollmentOutbox.recordForStudent(EnrollmentEventDTO.Type.UNENROLLED, student.getStudentId(), removed);
+            eventPublisher.publishEvent(SeatsReleasedEvent.of(removed));
+        }
+
+        Set<Integer> added = new LinkedHashSet<>(requested);
+        added.removeAll(current);
+        if (!added.isEmpty()) {
+            Set<Integer> activeCourses = new HashSet<>(courseRepository.findActiveIdsByCourseIdIn(added));
+            added.stream().filter(courseId -> !activeCourses.contains(courseId)).findFirst().ifPresent(courseId -> {
+                throw new ResourceNotFoundException("Course", "courseId", courseId.toString());
+            });
+            // ascending ids, so two updates claiming the same courses take the row locks in the same order
+            added.stream().sorted().forEach(courseId -> {
+                if (courseRepository.claimSeat(courseId) == 0) {
+                    throw new CourseFullException(courseId);
+                }
+            });
+            enrollmentRepository.saveAll(added.stream()
+                    .map(courseId -> StudentMapper.mapToEnrollment(student, courseRepository.getReferenceById(courseId), new Enrollment()))
+                    .toList());
+            enrollmentOutbox.recordForStudent(EnrollmentEventDTO.Type.ENROLLED, student.getStudentId(), added);
+        }
     }
 
     @Override
@@ -77,8 +317,16 @@ public class StudentServiceImpl implements IStudentService {
                 () -> new ResourceNotFoundException("Course", "courseId", courseId.toString())
         );
 
+        // a retried enrollment answers like the first one instead of tripping uq_student_course
+        if (!enrollmentRepository.findStudentIdsByCourseIdAndStudentIdIn(courseId, List.of(studentId)).isEmpty()) {
+            return mapWithEnrolledCourses(student);
+        }
+        if (courseRepository.claimSeat(courseId) == 0) {
+            throw new CourseFullException(courseId);
+        }
         enrollmentRepository.save(StudentMapper.mapToEnrollment(student,course,new Enrollment()));
-        return null;
+        enrollmentOutbox.recordForStudent(EnrollmentEventDTO.Type.ENROLLED, studentId, List.of(courseId));
+        return mapWithEnrolledCourses(student);
     }
 
     @Override
@@ -88,25 +336,65 @@ public class StudentServiceImpl implements IStudentService {
                 () -> new ResourceNotFoundException("Student", "studentId", studentId.toString())
 
         );
-        Course course = courseRepository.findById(courseId).orElseThrow(
+        courseRepository.findById(courseId).orElseThrow(
                 () -> new ResourceNotFoundException("Course", "courseId", courseId.toString())
         );
-        enrollmentRepository.delete(
-                StudentMapper.mapToEnrollment(student,course,new Enrollment())
-        );
+        // a JPQL delete, so the count says whether there was an enrollment to give the seat back from
+        int removed = enrollmentRepository.deleteByStudentIdAndCourseIdIn(studentId, List.of(courseId));
+        if (removed > 0) {
+            courseRepository.adjustEnrolledCounts(List.of(courseId), -removed);
+            // a dropped enrollment leaves no newer row behind, so Last-Modified needs the student's own timestamp
+            studentRepository.touch(studentId, LocalDateTime.now());
+            enrollmentOutbox.recordForStudent(EnrollmentEventDTO.Type.UNENROLLED, studentId, List.of(courseId));
+            // the waitlist is promoted after commit, off this request
+            eventPublisher.publishEvent(SeatsReleasedEvent.of(List.of(courseId)));
+        }
+        return mapWithEnrolledCourses(student);
+    }
 
-        return null;
+    private StudentDTO mapWithEnrolledCourses(Student student) {
+        Map<Integer, List<CourseDTO>> enrolledCourses =
+                groupByStudent(enrollmentRepository.findEnrolledCoursesByStudentIdIn(List.of(student.getStudentId())));
+        return StudentMapper.mapToStudentDTO(student, enrolledCourses.getOrDefault(student.getStudentId(), List.of()), new StudentDTO());
     }
 
     @Override
     @Transactional
     public void deleteStudent(Integer id) {
-        Student student = studentRepository.findByStudentIdAndStatusEquals(id, Student.Status.Active).orElseThrow(
-                () -> new ResourceNotFoundException("Student", "studentId", id.toString())
-        );
-        student.getEnrollments().clear();
-        enrollmentRepository.deleteByStudent_StudentId(id);
-        student.setStatus(Student.Status.Inactive);
-        studentRepository.save(student);
+        if (studentRepository.deactivateByStudentIdIn(List.of(id), LocalDateTime.now()) == 0) {
+            throw new ResourceNotFoundException("Student", "studentId", id.toString());
+        }
+        List<Integer> releasedCourses = enrollmentRepository.findCourseIdsByStudentId(id);
+        courseRepository.releaseSeatsOfStudents(List.of(id));
+        enrollmentOutbox.recordUnenrollmentsOfStudents(List.of(id));
+        enrollmentRepository.deleteAllByStudentIdIn(List.of(id));
+        waitlistRepository.deleteAllByStudentIdIn(List.of(id));
+        if (!releasedCourses.isEmpty()) {
+            eventPublisher.publishEvent(SeatsReleasedEvent.of(releasedCourses));
+        }
+        eventPublisher.publishEvent(StudentsChangedEvent.of(List.of(id)));
+    }
+
+    @Override
+    @Transactional
+    public int deactivateStudents(List<Integer> ids) {
+        int deactivated = 0;
+        Set<Integer> releasedCourses = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        // six statements per chunk; the chunks only keep the IN lists to a sane size
+        for (int from = 0; from < ids.size(); from += SMSConstants.DEACTIVATION_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + SMSConstants.DEACTIVATION_CHUNK_SIZE, ids.size()));
+            deactivated += studentRepository.deactivateByStudentIdIn(chunk, now);
+            releasedCourses.addAll(enrollmentRepository.findCourseIdsByStudentIdIn(chunk));
+            courseRepository.releaseSeatsOfStudents(chunk);
+            enrollmentOutbox.recordUnenrollmentsOfStudents(chunk);
+            enrollmentRepository.deleteAllByStudentIdIn(chunk);
+            waitlistRepository.deleteAllByStudentIdIn(chunk);
+        }
+        if (!releasedCourses.isEmpty()) {
+            eventPublisher.publishEvent(SeatsReleasedEvent.of(releasedCourses));
+        }
+        eventPublisher.publishEvent(StudentsChangedEvent.of(ids));
+        return deactivated;
     }
 }
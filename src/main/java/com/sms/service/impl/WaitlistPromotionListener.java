@@ -0,0 +1,54 @@
+package com.sms.service.impl;
+
+import com.sms.event.SeatsReleasedEvent;
+import com.sms.service.IWaitlistService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Promotes waitlisted students once the transaction that freed their seats has committed. The work
+ * runs on the task executor, so the request that cancelled an enrollment doesn't wait for it, and
+ * each batch is its own transaction. Releases for a course that already has a promotion queued
+ * are folded into that run instead of starting another one.
+ */
+@Slf4j
+@Component
+public class WaitlistPromotionListener {
+
+    private final IWaitlistService waitlistService;
+    private final TaskExecutor taskExecutor;
+    private final Set<Integer> scheduled = ConcurrentHashMap.newKeySet();
+
+    public WaitlistPromotionListener(IWaitlistService waitlistService,
+                                     @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.waitlistService = waitlistService;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @TransactionalEventListener
+    public void onSeatsReleased(SeatsReleasedEvent event) {
+        for (Integer courseId : event.courseIds()) {
+            if (scheduled.add(courseId)) {
+                taskExecutor.execute(() -> promote(courseId));
+            }
+        }
+    }
+
+    private void promote(Integer courseId) {
+        // cleared before starting, so a release that lands while this run is going schedules a new one
+        scheduled.remove(courseId);
+        try {
+            while (waitlistService.promoteNext(courseId) > 0) {
+                // keep going until the seats or the queue run out
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Waitlist promotion for course {} stopped, it resumes with the next released seat", courseId, ex);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.sms.service.impl;
+
+import com.sms.constants.SMSConstants;
+import com.sms.dto.EnrollmentEventDTO;
+import com.sms.dto.PageResponseDTO;
+import com.sms.dto.WaitlistEntryDTO;
+import com.sms.entity.Course;
+import com.sms.entity.Enrollment;
+import com.sms.entity.Student;
+import com.sms.entity.WaitlistEntry;
+import com.sms.exception.ResourceNotFoundException;
+import com.sms.mapper.StudentMapper;
+import com.sms.mapper.WaitlistMapper;
+import com.sms.outbox.EnrollmentOutbox;
+import com.sms.repository.CourseRepository;
+import com.sms.repository.EnrollmentBatchRepository;
+import com.sms.repository.StudentEnrollmentRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.repository.WaitlistRepository;
+import com.sms.repository.projection.WaitlistSlot;
+import com.sms.service.IWaitlistService;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class WaitlistServiceImpl implements IWaitlistService {
+
+    private final WaitlistRepository waitlistRepository;
+    private final CourseRepository courseRepository;
+    private final StudentRepository studentRepository;
+    private final StudentEnrollmentRepository enrollmentRepository;
+    private final EnrollmentBatchRepository enrollmentBatchRepository;
+    private final EnrollmentOutbox enrollmentOutbox;
+
+    @Override
+    @Transactional
+    public WaitlistEntryDTO joinWaitlist(Integer studentId, Integer courseId) {
+        Student student = studentRepository.findByStudentIdAndStatusEquals(studentId, Student.Status.Active).orElseThrow(
+                () -> new ResourceNotFoundException("Student", "studentId", studentId.toString())
+        );
+        Course course = courseRepository.findByCourseIdAndStatusEquals(courseId, Course.Status.Active).orElseThrow(
+                () -> new ResourceNotFoundException("Course", "courseId", courseId.toString())
+        );
+        if (!enrollmentRepository.findStudentIdsByCourseIdAndStudentIdIn(courseId, List.of(studentId)).isEmpty()) {
+            return WaitlistMapper.mapToEnrolledDTO(student, courseId);
+        }
+        Optional<WaitlistEntry> queued = waitlistRepository.findByStudent_StudentIdAndCourse_CourseId(studentId, courseId);
+        if (queued.isPresent()) {
+            return WaitlistMapper.mapToWaitlistEntryDTO(queued.get(),
+                    waitlistRepository.countAhead(courseId, queued.get().getWaitlistId()) + 1);
+        }
+        // a free seat with nobody queued for it goes to the student straight away
+        if (courseRepository.claimSeat(courseId) == 1) {
+            enrollmentRepository.save(StudentMapper.mapToEnrollment(student, course, new Enrollment()));
+            enrollmentOutbox.recordForStudent(EnrollmentEventDTO.Type.ENROLLED, studentId, List.of(courseId));
+            return WaitlistMapper.mapToEnrolledDTO(student, courseId);
+        }
+        WaitlistEntry entry = waitlistRepository.save(WaitlistMapper.mapToWaitlistEntry(student, course, new WaitlistEntry()));
+        return WaitlistMapper.mapToWaitlistEntryDTO(entry, waitlistRepository.countAhead(courseId, entry.getWaitlistId()) + 1);
+    }
+
+    @Override
+    @Transactional
+    public void leaveWaitlist(Integer studentId, Integer courseId) {
+        if (waitlistRepository.deleteByStudentIdAndCourseId(studentId, courseId) == 0) {
+            throw new ResourceNotFoundException("Waitlist entry", "courseId", courseId.toString());
+        }
+    }
+
+    @Override
+    public PageResponseDTO<WaitlistEntryDTO> getWaitlist(Integer courseId, @Nullable Integer after, @Nullable Integer limit) {
+        courseRepository.findActiveById(courseId).orElseThrow(
+                () -> new ResourceNotFoundException("Course", "courseId", courseId.toString())
+        );
+        int pageSize = limit == null ? SMSConstants.DEFAULT_PAGE_LIMIT : Math.clamp(limit, 1, SMSConstants.MAX_PAGE_LIMIT);
+        // one extra row tells us whether another page follows without a count query
+        List<WaitlistSlot> slots = waitlistRepository.findSlotsByCourseId(
+                courseId, after == null ? 0 : after, Limit.of(pageSize + 1));
+        Integer nextCursor = null;
+        if (slots.size() > pageSize) {
+            slots = slots.subList(0, pageSize);
+            nextCursor = slots.getLast().waitlistId();
+        }
+        // positions follow from the page's first entry, which only needs counting after the first page
+        long position = slots.isEmpty() || after == null ? 1 : waitlistRepository.countAhead(courseId, slots.getFirst().waitlistId()) + 1;
+        List<WaitlistEntryDTO> entries = new ArrayList<>(slots.size());
+        for (WaitlistSlot slot : slots) {
+            entries.add(WaitlistMapper.mapToWaitlistEntryDTO(slot, courseId, position++));
+        }
+        return new PageResponseDTO<>(entries, nextCursor);
+    }
+
+    @Override
+    @Transactional
+    public int promoteNext(Integer courseId) {
+        // same row lock as bulk enrollment, so seats are handed out by one writer at a time per course
+        Course course = courseRepository.findActiveByIdForUpdate(courseId).orElse(null);
+        if (course == null) {
+            return 0;
+        }
+        int seats = course.getCapacity() == null ? SMSConstants.WAITLIST_PROMOTION_BATCH_SIZE
+                : Math.clamp((long) course.getCapacity() - course.getEnrolledCount(), 0, SMSConstants.WAITLIST_PROMOTION_BATCH_SIZE);
+        if (seats == 0) {
+            return 0;
+        }
+        List<WaitlistSlot> head = waitlistRepository.findSlotsByCourseId(courseId, 0, Limit.of(seats));
+        if (head.isEmpty()) {
+            return 0;
+        }
+        // a student who got in some other way in the meantime isn't inserted again, the entry just goes
+        List<Integer> promoted = enrollmentBatchRepository.insertAll(courseId, head.stream().map(WaitlistSlot::studentId).toList());
+        if (!promoted.isEmpty()) {
+            courseRepository.adjustEnrolledCounts(List.of(courseId), promoted.size());
+            enrollmentOutbox.recordForCourse(EnrollmentEventDTO.Type.ENROLLED, courseId, promoted);
+        }
+        waitlistRepository.deleteAllByWaitlistIdIn(head.stream().map(WaitlistSlot::waitlistId).toList());
+        return head.size();
+    }
+}
@@ -8,10 +8,14 @@ CREATE TABLE IF NOT EXISTS sms.course (
     credits         INT DEFAULT 3,
     description     TEXT,
     status          ENUM('Active', 'Inactive') DEFAULT 'Active',
+    enrolled_count  INT NOT NULL DEFAULT 0,
+    capacity        INT,
     created_at      DATETIME DEFAULT CURRENT_TIMESTAMP,
     created_by      VARCHAR(100),
     updated_at      DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    updated_by      VARCHAR(100)
+    updated_by      VARCHAR(100),
+
+    INDEX idx_course_status_id (status, course_id)
 );
 
 CREATE TABLE IF NOT EXISTS sms.student (
@@ -28,7 +32,10 @@ CREATE TABLE IF NOT EXISTS sms.student (
     created_at      DATETIME DEFAULT CURRENT_TIMESTAMP,
     created_by      VARCHAR(100),
     updated_at      DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    updated_by      VARCHAR(100)
+    updated_by      VARCHAR(100),
+
+    INDEX idx_student_status_id (status, student_id),
+    INDEX idx_student_status_enrolled (status, enrollment_date)
 );
 
 CREATE TABLE IF NOT EXISTS sms.enrollments (
@@ -43,12 +50,73 @@ CREATE TABLE IF NOT EXISTS sms.enrollments (
     updated_by      VARCHAR(100),
 
     UNIQUE KEY (student_id, course_id),
+    INDEX idx_enrollment_course_student (course_id, student_id),
     FOREIGN KEY (student_id) REFERENCES student(student_id),
     FOREIGN KEY (course_id)  REFERENCES course(course_id)
 
 
 );
 
+CREATE TABLE IF NOT EXISTS sms.waitlist (
+    waitlist_id     INT AUTO_INCREMENT PRIMARY KEY,
+    student_id      INT NOT NULL,
+    course_id       INT NOT NULL,
+    created_at      DATETIME DEFAULT CURRENT_TIMESTAMP,
+
+    UNIQUE KEY uq_waitlist_student_course (student_id, course_id),
+    INDEX idx_waitlist_course_id (course_id, waitlist_id),
+    FOREIGN KEY (student_id) REFERENCES student(student_id),
+    FOREIGN KEY (course_id)  REFERENCES course(course_id)
+);
+
+-- Idempotency-Key responses, used when sms.idempotency.store=jdbc
+CREATE TABLE IF NOT EXISTS sms.idempotency_key (
+    idempotency_key VARCHAR(64) PRIMARY KEY,
+    request_hash    VARCHAR(64) NOT NULL,
+    status          INT NOT NULL,
+    content_type    VARCHAR(100),
+    location        VARCHAR(255),
+    body            MEDIUMBLOB,
+    created_at      DATETIME NOT NULL,
+
+    INDEX idx_idempotency_created (created_at)
+);
+
+-- Enrollment changes waiting for OutboxRelay, written in the transaction that made them and deleted once delivered
+CREATE TABLE IF NOT EXISTS sms.enrollment_outbox (
+    event_id        BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type      ENUM('ENROLLED', 'UNENROLLED') NOT NULL,
+    student_id      INT NOT NULL,
+    course_id       INT NOT NULL,
+    occurred_at     DATETIME NOT NULL
+);
+
+-- The one OutboxRelay allowed to deliver until leased_until, so batches go out one at a time in order
+CREATE TABLE IF NOT EXISTS sms.outbox_relay_lease (
+    lease_id        INT PRIMARY KEY,
+    owner           VARCHAR(36) NOT NULL,
+    leased_until    DATETIME NOT NULL
+);
+
+-- Written on the primary by every instance with sms.datasource.replicas; its age on a replica is that replica's lag
+CREATE TABLE IF NOT EXISTS sms.replica_heartbeat (
+    heartbeat_id    INT PRIMARY KEY,
+    beat_at_millis  BIGINT NOT NULL
+);
+
+-- Backfills student.enrollment_date for students created before the application set it on insert
+UPDATE sms.student
+SET enrollment_date = DATE(created_at)
+WHERE enrollment_date IS NULL;
+
+-- Drops responses stored before request bodies were hashed; a retry of one of those keys runs as a new request
+DELETE FROM sms.idempotency_key
+WHERE request_hash IS NULL;
+
+-- Backfills course.enrolled_count; also repairs the counters if they are ever suspected to have drifted
+UPDATE sms.course c
+SET enrolled_count = (SELECT COUNT(*) FROM sms.enrollments e WHERE e.course_id = c.course_id);
+
 CREATE TABLE IF NOT EXISTS users (
     user_id             INT AUTO_INCREMENT PRIMARY KEY,
     username            VARCHAR(50) NOT NULL UNIQUE,
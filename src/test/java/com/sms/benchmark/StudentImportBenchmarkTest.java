@@ -0,0 +1,67 @@
+package com.sms.benchmark;
+
+import com.sms.dto.BulkImportResultDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.service.IStudentService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rows/sec of the bulk import against one createStudent call per row.
+ * Runs only with the benchmark profile: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("h2")
+class StudentImportBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 5000);
+
+    @Autowired
+    private IStudentService studentService;
+
+    @Test
+    void compareSingleInsertWithBulkImport() {
+        List<StudentDTO> single = students("single", 1_000_000_000L, ROWS);
+        List<StudentDTO> bulk = students("bulk", 2_000_000_000L, ROWS);
+        // warm up both paths before timing them
+        students("warmup-single", 3_000_000_000L, 200).forEach(studentService::createStudent);
+        studentService.importStudents(students("warmup-bulk", 4_000_000_000L, 200));
+
+        long start = System.nanoTime();
+        single.forEach(studentService::createStudent);
+        long singleNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        BulkImportResultDTO result = studentService.importStudents(bulk);
+        long bulkNanos = System.nanoTime() - start;
+
+        assertThat(result.getCreated()).isEqualTo(ROWS);
+        System.out.printf("student import, %d rows: single insert %.0f rows/s, bulk import %.0f rows/s (%.1fx)%n",
+                ROWS, rowsPerSecond(singleNanos), rowsPerSecond(bulkNanos), (double) singleNanos / bulkNanos);
+    }
+
+    private static double rowsPerSecond(long nanos) {
+        return ROWS / (nanos / 1_000_000_000d);
+    }
+
+    private static List<StudentDTO> students(String prefix, long firstPhone, int count) {
+        List<StudentDTO> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(StudentDTO.builder()
+                    .firstName("First" + i).lastName("Last" + i)
+                    .email(prefix + i + "@sms.com").phoneNumber(String.valueOf(firstPhone + i))
+                    .address("Campus housing, block " + (i % 40))
+                    .build());
+        }
+        return students;
+    }
+}
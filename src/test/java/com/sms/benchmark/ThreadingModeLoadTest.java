@@ -0,0 +1,129 @@
+package com.sms.benchmark;
+
+import com.sms.StudentmanagementApiApplication;
+import com.sms.dto.BulkRowResultDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.service.IStudentService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and tail latency of GET /api/student/{id} with platform and with virtual request
+ * threads, with more concurrent clients than Tomcat has platform threads.
+ * Runs only with the benchmark profile: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class ThreadingModeLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("benchmark.requests", 50);
+    private static final int STUDENTS = 1000;
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+
+        System.out.println("threading mode, " + CLIENTS + " clients x " + REQUESTS_PER_CLIENT + " requests:");
+        System.out.println("  platform: " + platform);
+        System.out.println("  virtual:  " + virtual);
+        assertThat(platform.ok()).isPositive();
+        assertThat(virtual.ok()).isPositive();
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StudentmanagementApiApplication.class)
+                .profiles("h2")
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run()) {
+            List<Integer> ids = seed(context.getBean(IStudentService.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            load(port, ids, CLIENTS / 4, REQUESTS_PER_CLIENT / 5); // warm up
+            return load(port, ids, CLIENTS, REQUESTS_PER_CLIENT);
+        }
+    }
+
+    private static LoadResult load(int port, List<Integer> ids, int clients, int requestsPerClient) throws Exception {
+        long[] latencies = new long[clients * requestsPerClient];
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger busy = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor).build()) {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int clientIndex = c;
+                futures.add(executor.submit(() -> {
+                    for (int r = 0; r < requestsPerClient; r++) {
+                        int slot = clientIndex * requestsPerClient + r;
+                        URI uri = URI.create("http://localhost:" + port + "/api/student/" + ids.get(slot % ids.size()));
+                        long sent = System.nanoTime();
+                        try {
+                            int status = client.send(HttpRequest.newBuilder(uri).build(),
+                                    HttpResponse.BodyHandlers.discarding()).statusCode();
+                            (status == 200 ? ok : status == 503 ? busy : failed).incrementAndGet();
+                        } catch (Exception ex) {
+                            failed.incrementAndGet();
+                        }
+                        latencies[slot] = System.nanoTime() - sent;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(latencies);
+            return new LoadResult(ok.get(), busy.get(), failed.get(),
+                    latencies.length / (elapsed / 1_000_000_000d),
+                    percentileMillis(latencies, 0.5), percentileMillis(latencies, 0.99));
+        }
+    }
+
+    private static List<Integer> seed(IStudentService studentService) {
+        List<StudentDTO> students = new ArrayList<>(STUDENTS);
+        for (int i = 0; i < STUDENTS; i++) {
+            students.add(StudentDTO.builder()
+                    .firstName("First" + i).lastName("Last" + i)
+                    .email("load" + i + "@sms.com").phoneNumber(String.valueOf(5_000_000_000L + i))
+                    .address("Campus housing, block " + (i % 40))
+                    .build());
+        }
+        return studentService.importStudents(students).getRows().stream().map(BulkRowResultDTO::getId).toList();
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1_000_000d;
+    }
+
+    private record LoadResult(int ok, int busy, int failed, double requestsPerSecond, double p50Millis, double p99Millis) {
+
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %.1f ms, p99 %.1f ms (200: %d, 503: %d, failed: %d)",
+                    requestsPerSecond, p50Millis, p99Millis, ok, busy, failed);
+        }
+    }
+}
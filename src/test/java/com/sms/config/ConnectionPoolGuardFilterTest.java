@@ -0,0 +1,86 @@
+package com.sms.config;
+
+import com.sms.exception.ServiceBusyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ConnectionPoolGuardFilterTest {
+
+    private final HandlerExceptionResolver resolver = mock(HandlerExceptionResolver.class);
+
+    private final ConnectionPoolGuardFilter filter = new ConnectionPoolGuardFilter(1, Duration.ofMillis(50), resolver);
+
+    @Test
+    void testRequestIsRejectedWhileAllSlotsAreTaken() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(request("/api/student"), new MockHttpServletResponse(), (req, res) -> {
+                    entered.countDown();
+                    await(release);
+                });
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockFilterChain rejected = new MockFilterChain();
+        filter.doFilter(request("/api/student"), new MockHttpServletResponse(), rejected);
+
+        assertThat(rejected.getRequest()).isNull();
+        verify(resolver).resolveException(any(), any(), isNull(), any(ServiceBusyException.class));
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertThat(filter.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void testRequestsOutsideTheApiAreNotGuarded() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(request("/api/course"), new MockHttpServletResponse(), (req, res) -> await(release));
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        MockFilterChain health = new MockFilterChain();
+        filter.doFilter(request("/actuator/health"), new MockHttpServletResponse(), health);
+
+        assertThat(health.getRequest()).isNotNull();
+        verify(resolver, never()).resolveException(any(), any(), any(), any());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.sms.controller;
+
+import com.sms.dto.CourseDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.service.ICourseService;
+import com.sms.service.IStudentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IStudentService studentService;
+
+    @Autowired
+    private ICourseService courseService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testStudentValidatorsFollowEnrollmentsAndCourseEdits() throws Exception {
+        Integer studentId = studentService.createStudent(StudentDTO.builder().firstName("Etag").lastName("Student")
+                .email("etag@sms.com").address("Campus").build()).getId();
+        CourseDTO course = course("Compilers");
+        studentService.enrollInCourse(studentId, course.getId());
+
+        MvcResult first = mockMvc.perform(get("/api/student/{id}", studentId)).andExpect(status().isOk()).andReturn();
+        String eTag = first.getResponse().getHeader("ETag");
+        String lastModified = first.getResponse().getHeader("Last-Modified");
+        assertThat(eTag).startsWith("W/\"");
+        assertThat(lastModified).isNotNull();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/student/{id}", studentId).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/student/{id}", studentId).header("If-Modified-Since", lastModified))
+                .andExpect(status().isNotModified());
+        // one aggregate per request, the student and its courses are never loaded
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        course.setName("Compiler Construction");
+        courseService.updateCourse(course.getId(), course);
+        String renamed = changedETag("/api/student/" + studentId, eTag);
+
+        studentService.unenrollFromCourse(studentId, course.getId());
+        changedETag("/api/student/" + studentId, renamed);
+    }
+
+    @Test
+    void testCatalogAndCourseValidators() throws Exception {
+        CourseDTO course = course("Databases");
+        String catalogETag = mockMvc.perform(get("/api/course")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/course").header("If-None-Match", catalogETag)).andExpect(status().isNotModified());
+
+        String courseETag = mockMvc.perform(get("/api/course/{id}", course.getId())).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/course/{id}", course.getId()).header("If-None-Match", courseETag))
+                .andExpect(status().isNotModified());
+
+        Integer studentId = studentService.createStudent(StudentDTO.builder().firstName("Seat").lastName("Taker")
+                .email("seat.taker@sms.com").address("Campus").build()).getId();
+        studentService.enrollInCourse(studentId, course.getId());
+        // the enrolled count is part of the course body, but not of the cached catalog
+        changedETag("/api/course/" + course.getId(), courseETag);
+        mockMvc.perform(get("/api/course").header("If-None-Match", catalogETag)).andExpect(status().isNotModified());
+
+        course("Distributed Systems");
+        changedETag("/api/course", catalogETag);
+    }
+
+    @Test
+    void testFieldSelectionsHaveTheirOwnValidators() throws Exception {
+        Integer studentId = studentService.createStudent(StudentDTO.builder().firstName("Sparse").lastName("Copy")
+                .email("sparse.copy@sms.com").address("Campus").build()).getId();
+        String full = mockMvc.perform(get("/api/student/{id}", studentId)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        MvcResult sparse = mockMvc.perform(get("/api/student/{id}", studentId).param("fields", "id,firstName"))
+                .andExpect(status().isOk()).andReturn();
+        String sparseETag = sparse.getResponse().getHeader("ETag");
+        assertThat(sparseETag).isNotEqualTo(full);
+        assertThat(sparse.getResponse().getHeader("Last-Modified")).isNull();
+
+        // a cached sparse copy never stands in for the full student, nor the other way round
+        mockMvc.perform(get("/api/student/{id}", studentId).header("If-None-Match", sparseETag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/student/{id}", studentId).param("fields", "id,firstName").header("If-None-Match", full))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/student/{id}", studentId).param("fields", "firstName", "id").header("If-None-Match", sparseETag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/student/{id}", studentId).param("fields", "id,firstName").param("expand", "enrollments")
+                        .header("If-None-Match", sparseETag))
+                .andExpect(status().isOk());
+        // expanding what a student always carries is still the full representation
+        mockMvc.perform(get("/api/student/{id}", studentId).param("expand", "enrollments").header("If-None-Match", full))
+                .andExpect(status().isNotModified());
+
+        CourseDTO course = course("Information Retrieval");
+        String courseETag = mockMvc.perform(get("/api/course/{id}", course.getId())).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/course/{id}", course.getId()).param("fields", "id,name").header("If-None-Match", courseETag))
+                .andExpect(status().isOk());
+    }
+
+    private String changedETag(String path, String previous) throws Exception {
+        MvcResult result = mockMvc.perform(get(path).header("If-None-Match", previous)).andExpect(status().isOk()).andReturn();
+        String eTag = result.getResponse().getHeader("ETag");
+        assertThat(eTag).isNotEqualTo(previous);
+        return eTag;
+    }
+
+    private CourseDTO course(String name) {
+        return courseService.createCourse(CourseDTO.builder().name(name).description(name).credits(3).build());
+    }
+}
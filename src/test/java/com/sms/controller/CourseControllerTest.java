@@ -1,9 +1,18 @@
 package com.sms.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sms.dto.BulkEnrollmentRequestDTO;
+import com.sms.dto.BulkEnrollmentResultDTO;
 import com.sms.dto.CourseDTO;
+import com.sms.dto.CourseRosterEntryDTO;
+import com.sms.dto.FieldSelectionDTO;
+import com.sms.dto.PageResponseDTO;
+import com.sms.dto.ResourceVersionDTO;
+import com.sms.dto.WaitlistEntryDTO;
 import com.sms.exception.ResourceNotFoundException;
 import com.sms.service.ICourseService;
+import com.sms.service.IStudentEnrollmentService;
+import com.sms.service.IWaitlistService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,14 +24,19 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,6 +51,12 @@ class CourseControllerTest {
     @MockitoBean
     private ICourseService courseService;
 
+    @MockitoBean
+    private IStudentEnrollmentService studentEnrollmentService;
+
+    @MockitoBean
+    private IWaitlistService waitlistService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -73,10 +93,59 @@ class CourseControllerTest {
                 .andExpect(jsonPath("$[0].name").value("Course1"));
     }
 
+    @Test
+    @DisplayName("GET /api/course - Should return 304 when the catalog ETag matches")
+    void testGetAllCoursesWithCurrentETagShouldReturnNotModified() throws Exception {
+        when(courseService.getCatalogVersion()).thenReturn(new ResourceVersionDTO("\"c1\"", null));
+
+        mockMvc.perform(get("/api/course").header("If-None-Match", "\"c1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"c1\""))
+                .andExpect(header().doesNotExist("Last-Modified"));
+        verify(courseService, never()).getAllCourses();
+    }
+
+    @Test
+    @DisplayName("GET /api/course?limit - Should return the first keyset page")
+    void testGetCoursesPageShouldReturnItems() throws Exception {
+        when(courseService.getCoursesPage(null, 20)).thenReturn(new PageResponseDTO<>(List.of(testResponse), null));
+
+        mockMvc.perform(get("/api/course").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Course1"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/course?after - Should page with the default limit")
+    void testGetCoursesAfterWithoutLimitShouldReturnAPage() throws Exception {
+        when(courseService.getCoursesPage(100, null)).thenReturn(new PageResponseDTO<>(List.of(testResponse), null));
+
+        mockMvc.perform(get("/api/course").param("after", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Course1"));
+        verify(courseService, never()).getAllCourses();
+    }
+
+    @Test
+    @DisplayName("GET /api/course/{id}?fields&expand - Should keep the roster cursor")
+    void testGetCourseByIdWithSelectedFieldsShouldKeepRosterCursor() throws Exception {
+        testResponse.setEnrolledStudentsNextCursor(500);
+        when(courseService.getCourseById(eq(10000), argThat((FieldSelectionDTO selection) -> selection.includes("name")
+                && !selection.includes("credits") && selection.isEnrollments()))).thenReturn(testResponse);
+
+        mockMvc.perform(get("/api/course/10000").param("fields", "name").param("expand", "enrollments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Course1"))
+                .andExpect(jsonPath("$.credits").doesNotExist())
+                .andExpect(jsonPath("$.enrolledStudents").isArray())
+                .andExpect(jsonPath("$.enrolledStudentsNextCursor").value(500));
+    }
+
     @Test
     @DisplayName("GET /api/course/{id} - Should return student")
     void testGetCourseByIdShouldReturnOk() throws Exception {
-        when(courseService.getCourseById(10000)).thenReturn(testResponse);
+        when(courseService.getCourseById(10000, FieldSelectionDTO.ALL_COURSE_FIELDS)).thenReturn(testResponse);
 
         mockMvc.perform(get("/api/course/10000"))
                 .andExpect(status().isOk())
@@ -87,12 +156,39 @@ class CourseControllerTest {
     @Test
     @DisplayName("GET /api/course/{id} - Should return 404 when not found")
     void testGetCourseByIdWhenNotFoundShouldReturn404() throws Exception {
-        when(courseService.getCourseById(11)).thenThrow(new ResourceNotFoundException("Course", "courseId","11"));
+        when(courseService.getCourseById(11, FieldSelectionDTO.ALL_COURSE_FIELDS)).thenThrow(new ResourceNotFoundException("Course", "courseId","11"));
 
         mockMvc.perform(get("/api/course/11"))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /api/course/{id}/students - Should return a roster page")
+    void testGetCourseRosterShouldReturnPage() throws Exception {
+        when(courseService.getCourseRoster(10000, 5, 2)).thenReturn(new PageResponseDTO<>(List.of(
+                new CourseRosterEntryDTO(6, "John", "Doe", "john@test.com", LocalDate.of(2025, 9, 1)),
+                new CourseRosterEntryDTO(8, "Jane", "Roe", "jane@test.com", LocalDate.of(2025, 9, 2))), 8));
+
+        mockMvc.perform(get("/api/course/10000/students").param("after", "5").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[1].studentId").value(8))
+                .andExpect(jsonPath("$.items[0].enrolledCourses").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value(8));
+    }
+
+    @Test
+    @DisplayName("GET /api/course/{id}/waitlist - Should return the queue in order")
+    void testGetWaitlistShouldReturnPositions() throws Exception {
+        when(waitlistService.getWaitlist(10000, null, null)).thenReturn(new PageResponseDTO<>(List.of(
+                new WaitlistEntryDTO(6, "John", "Doe", 10000, WaitlistEntryDTO.Status.WAITLISTED, 1L, null),
+                new WaitlistEntryDTO(8, "Jane", "Roe", 10000, WaitlistEntryDTO.Status.WAITLISTED, 2L, null)), null));
+
+        mockMvc.perform(get("/api/course/10000/waitlist"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[1].studentId").value(8))
+                .andExpect(jsonPath("$.items[1].position").value(2));
+    }
+
     @Test
     @DisplayName("POST /api/course - Should create course")
     void testCreateCourseShouldReturnCreated() throws Exception {
@@ -127,6 +223,30 @@ class CourseControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("POST /api/course/{id}/enrollments - Should enroll a cohort")
+    void testEnrollStudentsShouldReturnOutcomePerStudent() throws Exception {
+        when(studentEnrollmentService.enrollStudents(10000, List.of(1, 2, 3)))
+                .thenReturn(new BulkEnrollmentResultDTO(10000, List.of(1), List.of(2), List.of(3), List.of()));
+
+        mockMvc.perform(post("/api/course/10000/enrollments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkEnrollmentRequestDTO(List.of(1, 2, 3)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enrolled[0]").value(1))
+                .andExpect(jsonPath("$.alreadyEnrolled[0]").value(2))
+                .andExpect(jsonPath("$.notFound[0]").value(3));
+    }
+
+    @Test
+    @DisplayName("POST /api/course/{id}/enrollments - Should return 400 without student ids")
+    void testEnrollStudentsWithoutIdsShouldReturn400() throws Exception {
+        mockMvc.perform(post("/api/course/10000/enrollments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkEnrollmentRequestDTO(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("DELETE /api/course/{id} - Should delete course")
     void testDeleteCourseShouldReturnNoContent() throws Exception {
@@ -0,0 +1,66 @@
+package com.sms.controller;
+
+import com.sms.dto.SearchHitDTO;
+import com.sms.dto.StudentSuggestionDTO;
+import com.sms.service.ISearchService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SearchController.class)
+@DisplayName("SearchController Tests")
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ISearchService searchService;
+
+    @Test
+    @DisplayName("GET /api/search - Should return the hits in score order")
+    void testSearchShouldReturnHits() throws Exception {
+        when(searchService.search("algebra", SearchHitDTO.Type.COURSE, 5)).thenReturn(List.of(
+                new SearchHitDTO(SearchHitDTO.Type.COURSE, 7, "Linear Algebra", "Vectors and matrices", 2.5f)));
+
+        mockMvc.perform(get("/api/search").param("q", "algebra").param("type", "COURSE").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].type").value("COURSE"))
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[0].title").value("Linear Algebra"));
+    }
+
+    @Test
+    @DisplayName("GET /api/search - Should search both types when no type is given")
+    void testSearchWithoutTypeShouldPassNull() throws Exception {
+        when(searchService.search("ada", null, null)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/search").param("q", "ada"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+        verify(searchService).search("ada", null, null);
+    }
+
+    @Test
+    @DisplayName("GET /api/search/students/suggest - Should return the matching students")
+    void testSuggestStudentsShouldReturnSuggestions() throws Exception {
+        when(searchService.suggestStudents("gra", 3)).thenReturn(List.of(
+                new StudentSuggestionDTO(4, "Grace", "Hopper", "grace@sms.com")));
+
+        mockMvc.perform(get("/api/search/students/suggest").param("q", "gra").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(4))
+                .andExpect(jsonPath("$[0].email").value("grace@sms.com"));
+    }
+}
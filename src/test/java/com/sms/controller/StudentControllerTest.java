@@ -1,9 +1,18 @@
 package com.sms.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sms.dto.BulkDeactivationJobDTO;
+import com.sms.dto.BulkImportResultDTO;
+import com.sms.dto.FieldSelectionDTO;
+import com.sms.dto.BulkRowResultDTO;
+import com.sms.dto.PageResponseDTO;
+import com.sms.dto.ResourceVersionDTO;
 import com.sms.dto.StudentDTO;
+import com.sms.dto.WaitlistEntryDTO;
 import com.sms.exception.ResourceNotFoundException;
+import com.sms.service.IStudentDeactivationService;
 import com.sms.service.IStudentService;
+import com.sms.service.IWaitlistService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,12 +22,23 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
 import java.util.*;
-
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -37,6 +57,12 @@ class StudentControllerTest {
     @MockitoBean
     private IStudentService studentService;
 
+    @MockitoBean
+    private IStudentDeactivationService deactivationService;
+
+    @MockitoBean
+    private IWaitlistService waitlistService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -68,17 +94,123 @@ class StudentControllerTest {
     @Test
     @DisplayName("GET /api/students - Should return all active students")
     void testGetAllStudentsShouldReturnOk() throws Exception {
-        when(studentService.getAllStudents()).thenReturn(List.of(testResponse));
+        when(studentService.getAllStudents(FieldSelectionDTO.ALL_STUDENT_FIELDS)).thenReturn(List.of(testResponse));
 
         mockMvc.perform(get("/api/student"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].email").value("john@test.com"));
     }
 
+    @Test
+    @DisplayName("GET /api/students - Should return CBOR when the client accepts it")
+    void testGetAllStudentsAsCborShouldDecodeToSameList() throws Exception {
+        when(studentService.getAllStudents(FieldSelectionDTO.ALL_STUDENT_FIELDS)).thenReturn(List.of(testResponse));
+
+        MvcResult result = mockMvc.perform(get("/api/student").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andReturn();
+
+        StudentDTO[] decoded = CBORMapper.builder().build()
+                .readValue(result.getResponse().getContentAsByteArray(), StudentDTO[].class);
+        assertEquals(1, decoded.length);
+        assertEquals(testResponse.getId(), decoded[0].getId());
+        assertEquals(testResponse.getEmail(), decoded[0].getEmail());
+    }
+
+    @Test
+    @DisplayName("GET /api/students?fields&expand - Should pass the selection down and drop unselected properties")
+    void testGetAllStudentsWithFieldsShouldReturnSparseStudents() throws Exception {
+        StudentDTO sparse = StudentDTO.builder().id(10000).firstName("John").build();
+        when(studentService.getAllStudents(argThat(selection -> selection.includes("phoneNumber")
+                && !selection.includes("email") && !selection.isEnrollments()))).thenReturn(List.of(sparse));
+
+        mockMvc.perform(get("/api/student").param("fields", "id,phoneNumber"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].*", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(10000))
+                // selected but null is still sent, only unselected properties are left out
+                .andExpect(jsonPath("$[0]", hasKey("phoneNumber")))
+                .andExpect(jsonPath("$[0]", not(hasKey("firstName"))))
+                .andExpect(jsonPath("$[0]", not(hasKey("enrolledCourses"))));
+    }
+
+    @Test
+    @DisplayName("GET /api/students - Should keep null properties in the default representation")
+    void testGetAllStudentsWithoutSelectionShouldKeepNulls() throws Exception {
+        testResponse.setPhoneNumber(null);
+        when(studentService.getAllStudents(FieldSelectionDTO.ALL_STUDENT_FIELDS)).thenReturn(List.of(testResponse));
+
+        mockMvc.perform(get("/api/student"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", hasKey("phoneNumber")))
+                .andExpect(jsonPath("$[0].phoneNumber").value(nullValue()));
+    }
+
+    @Test
+    @DisplayName("GET /api/students?fields - Should reject unknown fields with 400")
+    void testGetAllStudentsWithUnknownFieldShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/student").param("fields", "id,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage").value(containsString("password")));
+
+        mockMvc.perform(get("/api/student").param("expand", "grades"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(studentService);
+    }
+
+    @Test
+    @DisplayName("GET /api/student?after&limit - Should return a keyset page")
+    void testGetStudentsPageShouldReturnItemsAndCursor() throws Exception {
+        when(studentService.getStudentsPage(10, 1, FieldSelectionDTO.ALL_STUDENT_FIELDS)).thenReturn(new PageResponseDTO<>(List.of(testResponse), 10000));
+
+        mockMvc.perform(get("/api/student").param("after", "10").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].email").value("john@test.com"))
+                .andExpect(jsonPath("$.nextCursor").value(10000));
+    }
+
+    @Test
+    @DisplayName("GET /api/student?after - Should page with the default limit")
+    void testGetStudentsAfterWithoutLimitShouldReturnAPage() throws Exception {
+        when(studentService.getStudentsPage(100, null, FieldSelectionDTO.ALL_STUDENT_FIELDS)).thenReturn(new PageResponseDTO<>(List.of(testResponse), null));
+
+        mockMvc.perform(get("/api/student").param("after", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].email").value("john@test.com"));
+        verify(studentService, never()).getAllStudents(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/student/export - Should stream students as NDJSON")
+    void testExportStudentsShouldStreamOneJsonObjectPerLine() throws Exception {
+        StudentDTO second = StudentDTO.builder().id(10001).firstName("Jane").email("jane@test.com").build();
+        doAnswer(invocation -> {
+            Consumer<StudentDTO> sink = invocation.getArgument(0);
+            sink.accept(testResponse);
+            sink.accept(second);
+            return null;
+        }).when(studentService).exportStudents(any());
+
+        MvcResult result = mockMvc.perform(get("/api/student/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("john@test.com", objectMapper.readTree(lines[0]).get("email").asText());
+        assertEquals(10001, objectMapper.readTree(lines[1]).get("id").asInt());
+    }
+
     @Test
     @DisplayName("GET /api/student/{id} - Should return student")
     void testGetStudentByIdShouldReturnOk() throws Exception {
-        when(studentService.getStudentById(10000)).thenReturn(testResponse);
+        when(studentService.getStudentById(10000, FieldSelectionDTO.ALL_STUDENT_FIELDS)).thenReturn(testResponse);
 
         mockMvc.perform(get("/api/student/10000"))
                 .andExpect(status().isOk())
@@ -86,10 +218,29 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.firstName").value("John"));
     }
 
+    @Test
+    @DisplayName("GET /api/student/{id} - Should return 304 without loading the student when the ETag matches")
+    void testGetStudentByIdWithCurrentETagShouldReturnNotModified() throws Exception {
+        when(studentService.getStudentVersion(10000)).thenReturn(new ResourceVersionDTO("\"v1\"", 1_700_000_000_000L));
+
+        mockMvc.perform(get("/api/student/10000").header("If-None-Match", "\"v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"v1\""))
+                .andExpect(content().string(""));
+        verify(studentService, never()).getStudentById(any(), any());
+
+        when(studentService.getStudentById(10000, FieldSelectionDTO.ALL_STUDENT_FIELDS)).thenReturn(testResponse);
+        mockMvc.perform(get("/api/student/10000").header("If-None-Match", "\"v0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v1\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
     @Test
     @DisplayName("GET /api/students/{id} - Should return 404 when not found")
     void testGetStudentByIdWhenNotFoundShouldReturn404() throws Exception {
-        when(studentService.getStudentById(11)).thenThrow(new ResourceNotFoundException("Student", "studentId","11"));
+        when(studentService.getStudentById(11, FieldSelectionDTO.ALL_STUDENT_FIELDS)).thenThrow(new ResourceNotFoundException("Student", "studentId","11"));
 
         mockMvc.perform(get("/api/student/11"))
                 .andExpect(status().isNotFound());
@@ -118,6 +269,111 @@ class StudentControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("POST /api/student/bulk - Should import a JSON array")
+    void testImportStudentsShouldReturnRowResults() throws Exception {
+        when(studentService.importStudents(any())).thenReturn(new BulkImportResultDTO(1, 1, 0,
+                List.of(new BulkRowResultDTO(1, BulkRowResultDTO.Status.CREATED, 10000, null))));
+
+        mockMvc.perform(post("/api/student/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(testRequest))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rows[0].id").value(10000));
+    }
+
+    @Test
+    @DisplayName("POST /api/student/deactivations - Should accept a batch and point at its progress")
+    void testDeactivateStudentsShouldReturnAccepted() throws Exception {
+        when(deactivationService.startDeactivation(any())).thenReturn(new BulkDeactivationJobDTO("job-1",
+                BulkDeactivationJobDTO.Status.RUNNING, 2, 0, 0, null, null, null));
+
+        mockMvc.perform(post("/api/student/deactivations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentIds\":[1,2]}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/student/deactivations/job-1"))
+                .andExpect(jsonPath("$.total").value(2));
+    }
+
+    @Test
+    @DisplayName("POST /api/student/deactivations - Should reject a request with both ids and a date")
+    void testDeactivateStudentsShouldRejectAmbiguousSelector() throws Exception {
+        mockMvc.perform(post("/api/student/deactivations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentIds\":[1],\"enrolledBefore\":\"2024-06-30\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(deactivationService, never()).startDeactivation(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/student/deactivations/{jobId} - Should return 404 for unknown jobs")
+    void testGetDeactivationJobShouldReturnNotFound() throws Exception {
+        when(deactivationService.getDeactivationJob("nope"))
+                .thenThrow(new ResourceNotFoundException("Deactivation job", "jobId", "nope"));
+
+        mockMvc.perform(get("/api/student/deactivations/nope"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/student - Should return 409 when a unique key is already taken")
+    void testCreateStudentWithDuplicateKeyShouldReturnConflict() throws Exception {
+        when(studentService.createStudent(any())).thenThrow(new DataIntegrityViolationException("uq_email"));
+
+        mockMvc.perform(post("/api/student")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testRequest)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("POST /api/student/{studentId}/waitlist/{courseId} - Should return the queue position")
+    void testJoinWaitlistShouldReturnPosition() throws Exception {
+        when(waitlistService.joinWaitlist(10000, 7)).thenReturn(
+                new WaitlistEntryDTO(10000, "John", "Doe", 7, WaitlistEntryDTO.Status.WAITLISTED, 3L, null));
+
+        mockMvc.perform(post("/api/student/10000/waitlist/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("WAITLISTED"))
+                .andExpect(jsonPath("$.position").value(3));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/student/{studentId}/waitlist/{courseId} - Should return 404 when not queued")
+    void testLeaveWaitlistWhenNotQueuedShouldReturn404() throws Exception {
+        doThrow(new ResourceNotFoundException("Waitlist entry", "courseId", "7"))
+                .when(waitlistService).leaveWaitlist(10000, 7);
+
+        mockMvc.perform(delete("/api/student/10000/waitlist/7"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/student/bulk - Should import a CSV upload")
+    void testImportStudentsCsvShouldParseRows() throws Exception {
+        when(studentService.importStudents(any(), any())).thenReturn(new BulkImportResultDTO(3, 3, 0, List.of()));
+
+        mockMvc.perform(post("/api/student/bulk")
+                        .contentType("text/csv")
+                        .content("firstName,lastName,email,phoneNumber,address\r\n"
+                                + "John,Doe,john@test.com,1234567890,\"1 Main St, Springfield\"\r\n"
+                                + "\r\n"
+                                + "Jane,Roe,jane@test.com,,\"Flat 2\r\n\"\"The Annex\"\"\nCampus\"\n"
+                                + "Jim,Poe,jim@test.com,,Campus"))
+                .andExpect(status().isOk());
+
+        // the blank line and the quoted line breaks count, so each row is numbered by the line it starts on
+        verify(studentService).importStudents(argThat(rows -> rows.size() == 3
+                && rows.get(0).getAddress().equals("1 Main St, Springfield")
+                && rows.get(1).getEmail().equals("jane@test.com")
+                && rows.get(1).getPhoneNumber().isEmpty()
+                && rows.get(1).getAddress().equals("Flat 2\n\"The Annex\"\nCampus")
+                && rows.get(2).getEmail().equals("jim@test.com")), eq(List.of(2, 4, 7)));
+    }
+
     @Test
     @DisplayName("PUT /api/student/{id} - Should update student")
     void testUpdateStudentShouldReturnOk() throws Exception {
@@ -0,0 +1,80 @@
+package com.sms.datasource;
+
+import com.sms.dto.StudentDTO;
+import com.sms.service.IStudentService;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The application wired against a second embedded database as its replica. The replica gets the
+ * primary's schema but none of its rows, so which database answered shows in the result.
+ */
+@SpringBootTest(properties = {
+        "sms.datasource.replicas[0].url=" + ReplicaDataSourceConfigTest.REPLICA_URL,
+        "sms.datasource.replicas[0].username=sa",
+        "sms.datasource.replica.check-interval=1h"
+})
+@ActiveProfiles("h2")
+class ReplicaDataSourceConfigTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:sms-replica-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private IStudentService studentService;
+
+    @Test
+    void testReplicaReadsFollowReplicaLag() throws InterruptedException {
+        assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+        Integer studentId = studentService.createStudent(StudentDTO.builder().firstName("Replica").lastName("Reader")
+                .email("replica.reader@sms.com").address("Campus").build()).getId();
+
+        // no schema on the replica yet, so it can't be in sync and its reads stay on the primary
+        replicaLagMonitor.check();
+        assertThat(replicaLagMonitor.nextReplica()).isNull();
+        assertThat(studentService.getAllStudents()).extracting(StudentDTO::getId).contains(studentId);
+
+        JdbcDataSource replicaDataSource = new JdbcDataSource();
+        replicaDataSource.setURL(REPLICA_URL);
+        replicaDataSource.setUser("sa");
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        jdbcTemplate.queryForList("SCRIPT NODATA", String.class).stream()
+                .filter(statement -> !statement.startsWith("CREATE USER"))
+                .forEach(replica::execute);
+        replica.update("INSERT INTO sms.replica_heartbeat (heartbeat_id, beat_at_millis) VALUES (1, ?)",
+                System.currentTimeMillis());
+        awaitTrue(() -> {
+            replicaLagMonitor.check();
+            return replicaLagMonitor.nextReplica() != null;
+        });
+
+        // the list is now read from the empty replica, the single student still from the primary
+        assertThat(studentService.getAllStudents()).isEmpty();
+        assertThat(studentService.getStudentById(studentId).getEmail()).isEqualTo("replica.reader@sms.com");
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 50 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,122 @@
+package com.sms.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two embedded databases standing in for a primary and its replica. Each knows its own name, and
+ * replication is simulated by writing the replica's heartbeat row by hand.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate routedJdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        monitor = new ReplicaLagMonitor(primary, Map.of("replica-0", replica), Duration.ofSeconds(5), Duration.ofSeconds(1));
+
+        DataSource routed = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, monitor));
+        routedJdbc = new JdbcTemplate(routed);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routed);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.allowReplicaReads(false);
+    }
+
+    @Test
+    void replicaReadsGoToReplicaInSync() {
+        replicate();
+        monitor.check();
+
+        ReplicaRoutingDataSource.allowReplicaReads(true);
+
+        assertThat(whoAmI(readOnly)).isEqualTo("replica");
+        assertThat(monitor.getLagMillis("replica-0")).isBetween(0L, 5_000L);
+    }
+
+    @Test
+    void writesAndUnmarkedReadsStayOnPrimary() {
+        replicate();
+        monitor.check();
+
+        assertThat(whoAmI(readOnly)).isEqualTo("primary");
+        ReplicaRoutingDataSource.allowReplicaReads(true);
+        assertThat(whoAmI(readWrite)).isEqualTo("primary");
+        assertThat(whoAmI()).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        replicaJdbc.update("INSERT INTO sms.replica_heartbeat (heartbeat_id, beat_at_millis) VALUES (1, ?)",
+                System.currentTimeMillis() - 60_000);
+        monitor.check();
+
+        ReplicaRoutingDataSource.allowReplicaReads(true);
+
+        assertThat(monitor.nextReplica()).isNull();
+        assertThat(monitor.getLagMillis("replica-0")).isGreaterThanOrEqualTo(60_000L);
+        assertThat(whoAmI(readOnly)).isEqualTo("primary");
+    }
+
+    @Test
+    void replicaWithoutHeartbeatTakesNoReads() {
+        monitor.check();
+
+        assertThat(monitor.nextReplica()).isNull();
+        assertThat(monitor.getLagMillis("replica-0")).isEqualTo(-1L);
+        assertThat(primaryJdbc.queryForObject("SELECT COUNT(*) FROM sms.replica_heartbeat", Integer.class)).isEqualTo(1);
+    }
+
+    private String whoAmI(TransactionTemplate transaction) {
+        return transaction.execute(status -> whoAmI());
+    }
+
+    private String whoAmI() {
+        return routedJdbc.queryForObject("SELECT name FROM sms.whoami", String.class);
+    }
+
+    // copies the primary's last beat, or a fresh one before the first check
+    private void replicate() {
+        Long beat = primaryJdbc.queryForList("SELECT beat_at_millis FROM sms.replica_heartbeat", Long.class)
+                .stream().findFirst().orElse(System.currentTimeMillis());
+        replicaJdbc.update("MERGE INTO sms.replica_heartbeat (heartbeat_id, beat_at_millis) KEY (heartbeat_id) VALUES (1, ?)", beat);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE SCHEMA sms");
+        jdbc.execute("CREATE TABLE sms.replica_heartbeat (heartbeat_id INT PRIMARY KEY, beat_at_millis BIGINT NOT NULL)");
+        jdbc.execute("CREATE TABLE sms.whoami (name VARCHAR(20))");
+        jdbc.update("INSERT INTO sms.whoami VALUES (?)", name);
+        return dataSource;
+    }
+}
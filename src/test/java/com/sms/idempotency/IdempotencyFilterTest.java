@@ -0,0 +1,107 @@
+package com.sms.idempotency;
+
+import com.sms.dto.CourseDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.repository.StudentRepository;
+import com.sms.service.ICourseService;
+import com.sms.service.IStudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class IdempotencyFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IStudentService studentService;
+
+    @Autowired
+    private ICourseService courseService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testRetriedEnrollmentReplaysTheFirstResponse() throws Exception {
+        Integer studentId = studentService.createStudent(student("retry@sms.com")).getId();
+        Integer courseId = courseService.createCourse(CourseDTO.builder()
+                .name("Networks").description("Networks").credits(3).build()).getId();
+
+        String first = mockMvc.perform(post("/api/student/{studentId}/courses/{courseId}", studentId, courseId)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "enroll-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andExpect(jsonPath("$.enrolledCourses[0].id").value(courseId))
+                .andReturn().getResponse().getContentAsString();
+        // drop the enrollment behind the API's back: a replay must not run the service again
+        studentService.unenrollFromCourse(studentId, courseId);
+
+        mockMvc.perform(post("/api/student/{studentId}/courses/{courseId}", studentId, courseId)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "enroll-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().json(first));
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from sms.enrollments where student_id = ?",
+                Integer.class, studentId)).isZero();
+    }
+
+    @Test
+    void testRetriedCreateStudentCreatesOnlyOnce() throws Exception {
+        String body = "{\"firstName\":\"Ada\",\"lastName\":\"Lovelace\",\"email\":\"ada@sms.com\",\"address\":\"Campus\"}";
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            mockMvc.perform(post("/api/student").contentType(MediaType.APPLICATION_JSON).content(body)
+                            .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "create-ada"))
+                    .andExpect(status().isCreated());
+        }
+        assertThat(studentRepository.findExistingEmails(List.of("ada@sms.com"))).hasSize(1);
+
+        // same write under a new key is a real duplicate, answered as a conflict rather than a 500
+        mockMvc.perform(post("/api/student").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "create-ada-again"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testKeyReusedWithAnotherBodyIsRejected() throws Exception {
+        String grace = "{\"firstName\":\"Grace\",\"lastName\":\"Hopper\",\"email\":\"grace@sms.com\",\"address\":\"Campus\"}";
+        String alan = "{\"firstName\":\"Alan\",\"lastName\":\"Turing\",\"email\":\"alan@sms.com\",\"address\":\"Campus\"}";
+        mockMvc.perform(post("/api/student").contentType(MediaType.APPLICATION_JSON).content(grace)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "create-person"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/student").contentType(MediaType.APPLICATION_JSON).content(alan)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "create-person"))
+                .andExpect(status().isUnprocessableContent())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        assertThat(studentRepository.findExistingEmails(List.of("grace@sms.com", "alan@sms.com"))).containsExactly("grace@sms.com");
+    }
+
+    private static StudentDTO student(String email) {
+        return StudentDTO.builder().firstName("Retry").lastName("Student").email(email).address("Campus").build();
+    }
+}
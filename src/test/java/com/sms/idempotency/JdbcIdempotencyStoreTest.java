@@ -0,0 +1,66 @@
+package com.sms.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class JdbcIdempotencyStoreTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcIdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofHours(1), 100);
+    }
+
+    @Test
+    void testSecondClaimSeesTheFirstUntilItCompletes() {
+        assertThat(store.claim("k1", "h")).isNull();
+        assertThat(store.claim("k1", "h").inProgress()).isTrue();
+
+        store.complete("k1", new IdempotentResponse("h", 201, "application/json", "/api/x/1", "{\"id\":1}".getBytes()));
+
+        // a fresh store on the same table, as another instance would see it
+        IdempotentResponse replay = new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofHours(1), 100).claim("k1", "h");
+        assertThat(replay.status()).isEqualTo(201);
+        assertThat(replay.matches("h")).isTrue();
+        assertThat(replay.matches("other")).isFalse();
+        assertThat(replay.location()).isEqualTo("/api/x/1");
+        assertThat(new String(replay.body())).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void testReleasedAndExpiredKeysCanBeClaimedAgain() {
+        assertThat(store.claim("k2", "h")).isNull();
+        store.release("k2");
+        assertThat(store.claim("k2", "h")).isNull();
+        store.complete("k2", new IdempotentResponse("h", 200, null, null, new byte[0]));
+
+        JdbcIdempotencyStore expiring = new JdbcIdempotencyStore(jdbcTemplate, Duration.ZERO, Duration.ZERO, 100);
+        assertThat(expiring.claim("k2", "h")).isNull();
+    }
+
+    @Test
+    void testUnfinishedClaimBlocksItsKeyUntilAbandoned() {
+        assertThat(store.claim("k3", "h")).isNull();
+
+        assertThat(new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofMinutes(30), 100)
+                .claim("k3", "h").inProgress()).isTrue();
+        assertThat(new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ZERO, 100)
+                .claim("k3", "h")).isNull();
+    }
+}
@@ -0,0 +1,86 @@
+package com.sms.metrics;
+
+import com.sms.dto.CourseDTO;
+import com.sms.service.ICourseService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.micrometer.metrics.test.autoconfigure.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ActiveProfiles("h2")
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ICourseService courseService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testServiceAndRepositoryCallsAreTimedByOutcome() throws Exception {
+        Integer id = courseService.createCourse(CourseDTO.builder().name("Physics").description("Physics").credits(4).build()).getId();
+
+        long successBefore = count(MethodMetricsAspect.SERVICE_TIMER, "getCourseById", "outcome", "success");
+        long errorBefore = count(MethodMetricsAspect.SERVICE_TIMER, "getCourseById", "outcome", "error");
+        long countBefore = count(MethodMetricsAspect.REPOSITORY_TIMER, "findEnrolledCountByCourseId", "class", "CourseRepository");
+
+        mockMvc.perform(get("/api/course/{id}", id)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/course/{id}", 999_999)).andExpect(status().isNotFound());
+
+        assertThat(count(MethodMetricsAspect.SERVICE_TIMER, "getCourseById", "outcome", "success")).isEqualTo(successBefore + 1);
+        assertThat(count(MethodMetricsAspect.SERVICE_TIMER, "getCourseById", "outcome", "error")).isEqualTo(errorBefore + 1);
+        // once for the ETag, once for the body
+        assertThat(count(MethodMetricsAspect.REPOSITORY_TIMER, "findEnrolledCountByCourseId", "class", "CourseRepository")).isEqualTo(countBefore + 2);
+        assertThat(meterRegistry.get(MethodMetricsAspect.SERVICE_TIMER)
+                .tags("method", "getCourseById", "exception", "ResourceNotFoundException").timer().count())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void testQueryCountsAreRecordedPerRequest() throws Exception {
+        Integer id = courseService.createCourse(CourseDTO.builder().name("Geology").description("Geology").credits(2).build()).getId();
+
+        mockMvc.perform(get("/api/course/{id}", id)).andExpect(status().isOk());
+
+        DistributionSummary queries = meterRegistry.get(QueryCountFilter.QUERIES_SUMMARY)
+                .tags("method", "GET", "uri", "/api/course/{id}", "outcome", "SUCCESSFUL").summary();
+        assertThat(queries.count()).isGreaterThanOrEqualTo(1);
+        assertThat(queries.totalAmount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void testTimersPublishPercentilesAndHistograms() throws Exception {
+        courseService.getAllCourses();
+
+        Timer timer = meterRegistry.get(MethodMetricsAspect.SERVICE_TIMER).tag("method", "getAllCourses").timer();
+        assertThat(timer.takeSnapshot().percentileValues()).extracting(ValueAtPercentile::percentile)
+                .containsExactly(0.5, 0.95, 0.99);
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("sms_service_invocations_seconds_bucket")));
+    }
+
+    private long count(String timer, String method, String tagKey, String tagValue) {
+        return meterRegistry.find(timer).tags("method", method, tagKey, tagValue).timers().stream()
+                .mapToLong(Timer::count).sum();
+    }
+}
@@ -0,0 +1,157 @@
+package com.sms.outbox;
+
+import com.sms.dto.BulkRowResultDTO;
+import com.sms.dto.CourseDTO;
+import com.sms.dto.EnrollmentEventDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.event.EnrollmentEventsRelayedEvent;
+import com.sms.exception.ResourceNotFoundException;
+import com.sms.service.ICourseService;
+import com.sms.service.IStudentEnrollmentService;
+import com.sms.service.IStudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * The relay only runs once at startup here, so each test relays on its own thread and the
+ * in-process sink's events are recorded for it.
+ */
+@SpringBootTest(properties = "sms.outbox.relay-interval=1h")
+@ActiveProfiles("h2")
+@RecordApplicationEvents
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private IStudentService studentService;
+
+    @Autowired
+    private IStudentEnrollmentService enrollmentService;
+
+    @Autowired
+    private ICourseService courseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Test
+    void testEnrollmentChangesAreRelayedInOrder() {
+        outboxRelay.relay();
+        Integer course = course("Outbox Basics");
+        Integer otherCourse = course("Outbox Advanced");
+        List<Integer> students = students("outbox", 3);
+
+        studentService.enrollInCourse(students.get(0), course);
+        enrollmentService.enrollStudents(course, List.of(students.get(1), students.get(2)));
+        studentService.unenrollFromCourse(students.get(0), course);
+        studentService.enrollInCourse(students.get(1), otherCourse);
+        studentService.deleteStudent(students.get(1));
+
+        assertThat(outboxRelay.relay()).isEqualTo(7);
+        assertThat(relayed())
+                .extracting(EnrollmentEventDTO::getType, EnrollmentEventDTO::getStudentId, EnrollmentEventDTO::getCourseId)
+                .containsExactly(
+                        tuple(EnrollmentEventDTO.Type.ENROLLED, students.get(0), course),
+                        tuple(EnrollmentEventDTO.Type.ENROLLED, students.get(1), course),
+                        tuple(EnrollmentEventDTO.Type.ENROLLED, students.get(2), course),
+                        tuple(EnrollmentEventDTO.Type.UNENROLLED, students.get(0), course),
+                        tuple(EnrollmentEventDTO.Type.ENROLLED, students.get(1), otherCourse),
+                        tuple(EnrollmentEventDTO.Type.UNENROLLED, students.get(1), course),
+                        tuple(EnrollmentEventDTO.Type.UNENROLLED, students.get(1), otherCourse));
+        assertThat(outboxSize()).isZero();
+        assertThat(outboxRelay.relay()).isZero();
+    }
+
+    @Test
+    void testRolledBackChangeLeavesNoEvent() {
+        outboxRelay.relay();
+        Integer course = course("Outbox Rollback");
+        Integer student = students("rollback", 1).getFirst();
+        studentService.enrollInCourse(student, course);
+        outboxRelay.relay();
+        applicationEvents.clear();
+
+        // drops the enrollment, then fails on the unknown course it was swapped for
+        StudentDTO update = studentService.getStudentById(student);
+        update.setEnrolledCourses(List.of(CourseDTO.builder().id(Integer.MAX_VALUE).build()));
+        assertThatThrownBy(() -> studentService.updateStudent(student, update))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(outboxSize()).isZero();
+        assertThat(outboxRelay.relay()).isZero();
+        assertThat(relayed()).isEmpty();
+    }
+
+    @Test
+    void testOnlyTheLeaseHolderRelaysAndPublishesOutsideATransaction() {
+        outboxRelay.relay();
+        Integer course = course("Outbox Lease");
+        Integer student = students("lease", 1).getFirst();
+        studentService.enrollInCourse(student, course);
+        List<EnrollmentEventDTO> published = new ArrayList<>();
+        OutboxRelay otherInstance = new OutboxRelay(jdbcTemplate, events -> {
+            // enrollment writes must not wait on a consumer, so nothing may be locked while it runs
+            assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+            published.addAll(events);
+        }, Duration.ofHours(1), Duration.ofHours(1));
+
+        assertThat(otherInstance.relay()).isZero();
+        assertThat(outboxSize()).isEqualTo(1);
+
+        jdbcTemplate.update("UPDATE sms.outbox_relay_lease SET leased_until = ?", Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+        assertThat(otherInstance.relay()).isEqualTo(1);
+        assertThat(published).extracting(EnrollmentEventDTO::getStudentId).containsExactly(student);
+        assertThat(outboxSize()).isZero();
+        assertThat(outboxRelay.relay()).isZero();
+        // lets the context's relay take the lease back for the other tests
+        jdbcTemplate.update("UPDATE sms.outbox_relay_lease SET leased_until = ?", Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+    }
+
+    private List<EnrollmentEventDTO> relayed() {
+        return applicationEvents.stream(EnrollmentEventsRelayedEvent.class)
+                .flatMap(batch -> batch.events().stream())
+                .toList();
+    }
+
+    private Integer outboxSize() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sms.enrollment_outbox", Integer.class);
+    }
+
+    private Integer course(String name) {
+        return courseService.createCourse(CourseDTO.builder()
+                .name(name).description(name).credits(3).capacity(10).build()).getId();
+    }
+
+    private List<Integer> students(String prefix, int count) {
+        List<StudentDTO> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(StudentDTO.builder()
+                    .firstName("First" + i).lastName("Last" + i)
+                    .email(prefix + i + "@sms.com")
+                    .address("Campus housing")
+                    .build());
+        }
+        return studentService.importStudents(students).getRows().stream().map(BulkRowResultDTO::getId).toList();
+    }
+}
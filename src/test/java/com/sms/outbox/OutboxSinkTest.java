@@ -0,0 +1,87 @@
+package com.sms.outbox;
+
+import com.sms.dto.EnrollmentEventDTO;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class OutboxSinkTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private HttpServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testFileSinkAppendsOneLinePerEvent(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("events/enrollments.ndjson");
+        FileOutboxSink sink = new FileOutboxSink(file, jsonMapper);
+
+        sink.publish(List.of(event(1L, EnrollmentEventDTO.Type.ENROLLED), event(2L, EnrollmentEventDTO.Type.UNENROLLED)));
+        sink.publish(List.of(event(3L, EnrollmentEventDTO.Type.ENROLLED)));
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(3);
+        assertThat(lines.stream().map(line -> jsonMapper.readValue(line, EnrollmentEventDTO.class)))
+                .extracting(EnrollmentEventDTO::getEventId, EnrollmentEventDTO::getType)
+                .containsExactly(
+                        tuple(1L, EnrollmentEventDTO.Type.ENROLLED),
+                        tuple(2L, EnrollmentEventDTO.Type.UNENROLLED),
+                        tuple(3L, EnrollmentEventDTO.Type.ENROLLED));
+    }
+
+    @Test
+    void testHttpSinkPostsTheBatchAndFailsOnErrorStatus() throws IOException {
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        AtomicInteger status = new AtomicInteger(204);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/enrollment-events", exchange -> {
+            bodies.add(new String(exchange.getRequestBody().readAllBytes()));
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        HttpOutboxSink sink = new HttpOutboxSink(
+                URI.create("http://localhost:" + server.getAddress().getPort() + "/enrollment-events"),
+                Duration.ofSeconds(5), jsonMapper);
+
+        sink.publish(List.of(event(1L, EnrollmentEventDTO.Type.ENROLLED), event(2L, EnrollmentEventDTO.Type.UNENROLLED)));
+
+        assertThat(bodies).hasSize(1);
+        assertThat(jsonMapper.readValue(bodies.getFirst(), EnrollmentEventDTO[].class))
+                .extracting(EnrollmentEventDTO::getEventId)
+                .containsExactly(1L, 2L);
+
+        status.set(503);
+        assertThatThrownBy(() -> sink.publish(List.of(event(3L, EnrollmentEventDTO.Type.ENROLLED))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("503");
+    }
+
+    private static EnrollmentEventDTO event(Long eventId, EnrollmentEventDTO.Type type) {
+        return new EnrollmentEventDTO(eventId, type, 10, 20, LocalDateTime.of(2025, 1, 1, 9, 0));
+    }
+}
@@ -0,0 +1,103 @@
+package com.sms.repository;
+
+import com.sms.dto.CourseDTO;
+import com.sms.dto.CourseRosterEntryDTO;
+import com.sms.dto.PageResponseDTO;
+import com.sms.entity.Course;
+import com.sms.entity.Student;
+import com.sms.outbox.EnrollmentOutbox;
+import com.sms.service.impl.CourseServiceImpl;
+import com.sms.service.impl.StudentEnrollmentServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CourseServiceImpl.class, StudentEnrollmentServiceImpl.class, StudentBatchRepository.class, EnrollmentBatchRepository.class, EnrollmentOutbox.class})
+class CourseRosterTest {
+
+    // an intro course
+    private static final int SEATS = 600;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CourseServiceImpl courseService;
+
+    @Autowired
+    private StudentBatchRepository studentBatchRepository;
+
+    @Autowired
+    private StudentEnrollmentServiceImpl enrollmentService;
+
+    private Integer courseId;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Course course = new Course();
+        course.setName("Intro to Programming");
+        course.setCredits(4);
+        course.setStatus(Course.Status.Active);
+        entityManager.persist(course);
+        entityManager.flush();
+        courseId = course.getCourseId();
+
+        List<Student> students = new ArrayList<>(SEATS);
+        for (int i = 0; i < SEATS; i++) {
+            Student student = new Student();
+            student.setFirstName("First" + i);
+            student.setLastName("Last" + i);
+            student.setEmail("roster" + i + "@sms.com");
+            students.add(student);
+        }
+        enrollmentService.enrollStudents(courseId, studentBatchRepository.insertAll(students));
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testGetCourseByIdReadsTheEnrolledCounter() {
+        CourseDTO course = courseService.getCourseById(courseId);
+
+        assertThat(course.getEnrolledCount()).isEqualTo(SEATS);
+        assertThat(course.getEnrolledStudents()).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testRosterPagesAreOneJoinQueryEach() {
+        List<Integer> seen = new ArrayList<>();
+        Integer cursor = null;
+        int pages = 0;
+        do {
+            PageResponseDTO<CourseRosterEntryDTO> page = courseService.getCourseRoster(courseId, cursor, 100);
+            page.getItems().forEach(entry -> seen.add(entry.getStudentId()));
+            assertThat(page.getItems()).allSatisfy(entry -> assertThat(entry.getEnrollmentDate()).isNotNull());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(SEATS).isSorted().doesNotHaveDuplicates();
+        // the course lookup (uncached in this slice) plus the roster join, per page
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2L * pages);
+    }
+}
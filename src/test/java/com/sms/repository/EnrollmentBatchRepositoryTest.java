@@ -0,0 +1,69 @@
+package com.sms.repository;
+
+import com.sms.entity.Course;
+import com.sms.entity.Student;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EnrollmentBatchRepository.class)
+class EnrollmentBatchRepositoryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EnrollmentBatchRepository enrollmentBatchRepository;
+
+    @Autowired
+    private StudentEnrollmentRepository enrollmentRepository;
+
+    @Test
+    void testInsertAllSkipsPairsThatAreAlreadyEnrolled() {
+        Course course = new Course();
+        course.setName("Math 101");
+        entityManager.persist(course);
+        List<Integer> studentIds = List.of(student("a@sms.com"), student("b@sms.com"), student("c@sms.com"));
+        entityManager.flush();
+        enrollmentBatchRepository.insertAll(course.getCourseId(), List.of(studentIds.get(1)));
+
+        List<Integer> inserted = enrollmentBatchRepository.insertAll(course.getCourseId(), studentIds);
+
+        assertThat(inserted).containsExactly(studentIds.get(0), studentIds.get(2));
+        assertThat(enrollmentRepository.findStudentIdsByCourseIdAndStudentIdIn(course.getCourseId(), studentIds))
+                .containsExactlyInAnyOrderElementsOf(studentIds);
+    }
+
+    @Test
+    void testInsertAllFailsOnUnknownStudent() {
+        Course course = new Course();
+        course.setName("Math 101");
+        entityManager.persist(course);
+        entityManager.flush();
+
+        assertThatThrownBy(() -> enrollmentBatchRepository.insertAll(course.getCourseId(), List.of(-1)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private Integer student(String email) {
+        Student student = new Student();
+        student.setFirstName("First");
+        student.setLastName("Last");
+        student.setEmail(email);
+        entityManager.persist(student);
+        return student.getStudentId();
+    }
+}
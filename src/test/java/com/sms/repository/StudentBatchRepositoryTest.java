@@ -0,0 +1,76 @@
+package com.sms.repository;
+
+import com.sms.dto.BulkImportResultDTO;
+import com.sms.dto.BulkRowResultDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.entity.Student;
+import com.sms.outbox.EnrollmentOutbox;
+import com.sms.service.impl.StudentServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "sms.bulk.batch-size=7")
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({StudentServiceImpl.class, StudentBatchRepository.class, LocalValidatorFactoryBean.class, EnrollmentOutbox.class})
+class StudentBatchRepositoryTest {
+
+    @Autowired
+    private StudentServiceImpl studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Test
+    void testImportStudentsInsertsValidRowsAcrossBatchesAndReturnsTheirIds() {
+        List<StudentDTO> requests = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            requests.add(student("student" + i + "@sms.com", String.format("90000000%02d", i)));
+        }
+
+        BulkImportResultDTO result = studentService.importStudents(requests);
+
+        assertThat(result.getCreated()).isEqualTo(30);
+        assertThat(result.getRows()).extracting(BulkRowResultDTO::getId).doesNotContainNull().doesNotHaveDuplicates();
+        Student stored = studentRepository.findById(result.getRows().get(12).getId()).orElseThrow();
+        assertThat(stored.getEmail()).isEqualTo("student12@sms.com");
+        assertThat(stored.getStatus()).isEqualTo(Student.Status.Active);
+    }
+
+    @Test
+    void testImportStudentsRejectsInvalidAndDuplicateRowsWithoutAbortingTheRest() {
+        studentService.importStudents(List.of(student("taken@sms.com", "9000000001")));
+
+        BulkImportResultDTO result = studentService.importStudents(List.of(
+                student("new@sms.com", "9000000002"),
+                student("taken@sms.com", ""),
+                student("not-an-email", ""),
+                student("other@sms.com", "9000000002"),
+                student("third@sms.com", "")));
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getRows()).extracting(BulkRowResultDTO::getStatus).containsExactly(
+                BulkRowResultDTO.Status.CREATED, BulkRowResultDTO.Status.REJECTED, BulkRowResultDTO.Status.REJECTED,
+                BulkRowResultDTO.Status.REJECTED, BulkRowResultDTO.Status.CREATED);
+        assertThat(result.getRows().get(1).getMessage()).startsWith("email:");
+        assertThat(result.getRows().get(3).getMessage()).startsWith("phoneNumber:");
+        assertThat(studentRepository.findById(result.getRows().get(4).getId()).orElseThrow().getPhone()).isNull();
+    }
+
+    private StudentDTO student(String email, String phone) {
+        return StudentDTO.builder()
+                .firstName("First").lastName("Last").email(email).phoneNumber(phone).address("Campus")
+                .build();
+    }
+}
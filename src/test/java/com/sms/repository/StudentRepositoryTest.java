@@ -0,0 +1,272 @@
+package com.sms.repository;
+
+import com.sms.constants.SMSConstants;
+import com.sms.dto.CourseDTO;
+import com.sms.dto.EnrollmentEventDTO;
+import com.sms.dto.PageResponseDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.entity.Course;
+import com.sms.entity.Enrollment;
+import com.sms.entity.Student;
+import com.sms.outbox.EnrollmentOutbox;
+import com.sms.service.impl.StudentServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({StudentServiceImpl.class, StudentBatchRepository.class, EnrollmentBatchRepository.class, LocalValidatorFactoryBean.class, EnrollmentOutbox.class})
+class StudentRepositoryTest {
+
+    private static final int STUDENTS = 20;
+    private static final int GRADUATES = 5000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private StudentServiceImpl studentService;
+
+    @Autowired
+    private StudentBatchRepository studentBatchRepository;
+
+    @Autowired
+    private EnrollmentBatchRepository enrollmentBatchRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Course math = course("Math 101");
+        Course physics = course("Physics 101");
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student();
+            student.setFirstName("First" + i);
+            student.setLastName("Last" + i);
+            student.setEmail("student" + i + "@sms.com");
+            student.setStatus(Student.Status.Active);
+            entityManager.persist(student);
+            entityManager.persist(enrollment(student, math));
+            entityManager.persist(enrollment(student, physics));
+        }
+        entityManager.flush();
+        recountEnrollments();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testGetAllStudentsSelectsProjectionsWithoutLoadingEntities() {
+        List<StudentDTO> result = studentService.getAllStudents();
+
+        assertThat(result).hasSize(STUDENTS).extracting(StudentDTO::getId).isSorted();
+        assertThat(result).allSatisfy(dto -> assertThat(dto.getEnrolledCourses()).extracting("name")
+                .containsExactly("Math 101", "Physics 101"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void testGetStudentByIdLoadsEnrollmentsAndCoursesInOneStatement() {
+        Integer id = studentService.getAllStudents().getFirst().getId();
+        entityManager.clear();
+        statistics.clear();
+
+        StudentDTO result = studentService.getStudentById(id);
+
+        assertThat(result.getEnrolledCourses()).extracting("name").containsExactlyInAnyOrder("Math 101", "Physics 101");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testGetStudentsPageWalksAllActiveStudentsByCursor() {
+        List<Integer> seen = new ArrayList<>();
+        Integer cursor = null;
+        do {
+            statistics.clear();
+            PageResponseDTO<StudentDTO> page = studentService.getStudentsPage(cursor, 6);
+            page.getItems().forEach(dto -> seen.add(dto.getId()));
+            assertThat(page.getItems()).allSatisfy(dto -> assertThat(dto.getEnrolledCourses()).hasSize(2));
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(STUDENTS).isSorted().doesNotHaveDuplicates();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void testExportStudentsStreamsEveryStudentInOneStatementAndDetachesThem() {
+        List<StudentDTO> exported = new ArrayList<>();
+
+        studentService.exportStudents(exported::add);
+
+        assertThat(exported).hasSize(STUDENTS).extracting(StudentDTO::getId).isSorted();
+        assertThat(exported).allSatisfy(dto -> assertThat(dto.getEnrolledCourses()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void testUpdateStudentOnlyWritesTheEnrollmentDiff() {
+        Integer id = studentService.getAllStudents().getFirst().getId();
+        Course chemistry = course("Chemistry 101");
+        Enrollment physics = entityManager.createQuery(
+                "select e from Enrollment e where e.student.studentId = :id and e.course.name = 'Physics 101'", Enrollment.class)
+                .setParameter("id", id).getSingleResult();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        StudentDTO request = studentDTO(id, "5550001111");
+        request.setEnrolledCourses(List.of(CourseDTO.builder().id(physics.getCourse().getCourseId()).build(),
+                CourseDTO.builder().id(chemistry.getCourseId()).build()));
+        StudentDTO result = studentService.updateStudent(id, request);
+
+        assertThat(result.getEnrolledCourses()).extracting("name").containsExactly("Physics 101", "Chemistry 101");
+        // student select + update, current course ids, active check, one bulk delete with its counter update
+        // and student touch, the counter update and insert for the new course, response courses
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(10);
+        assertThat(enrolledCounts()).containsExactly(STUDENTS - 1, STUDENTS, 1);
+        entityManager.clear();
+        Enrollment kept = entityManager.find(Enrollment.class, physics.getEnrollmentId());
+        assertThat(kept.getEnrollmentDate()).isEqualTo(physics.getEnrollmentDate());
+    }
+
+    @Test
+    void testUpdateStudentWithoutCoursesLeavesEnrollmentsUntouched() {
+        Integer id = studentService.getAllStudents().getFirst().getId();
+        entityManager.clear();
+        statistics.clear();
+
+        StudentDTO result = studentService.updateStudent(id, studentDTO(id, "5550002222"));
+
+        assertThat(result.getPhoneNumber()).isEqualTo("5550002222");
+        assertThat(result.getEnrolledCourses()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityDeleteCount()).isZero();
+    }
+
+    @Test
+    void testDeleteStudentDeactivatesReleasesSeatsAndDropsEnrollmentsInFiveStatements() {
+        Integer id = studentService.getAllStudents().getFirst().getId();
+        statistics.clear();
+
+        studentService.deleteStudent(id);
+
+        // read the courses to promote on, deactivate, give the seats back, delete enrollments, leave waitlists;
+        // the outbox events for the dropped enrollments are one more INSERT ... SELECT, sent through JDBC
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+        assertThat(entityManager.createQuery(
+                "select o.eventType from EnrollmentOutboxEntry o where o.studentId = :id", EnrollmentEventDTO.Type.class)
+                .setParameter("id", id).getResultList())
+                .containsExactly(EnrollmentEventDTO.Type.UNENROLLED, EnrollmentEventDTO.Type.UNENROLLED);
+        assertThat(entityManager.find(Student.class, id).getStatus()).isEqualTo(Student.Status.Inactive);
+        assertThat(enrollmentCount(List.of(id))).isZero();
+        assertThat(enrolledCounts()).containsExactly(STUDENTS - 1, STUDENTS - 1);
+    }
+
+    @Test
+    void testEnrollAndUnenrollKeepTheCourseCounterInStep() {
+        Integer id = studentService.getAllStudents().getFirst().getId();
+        Integer chemistry = course("Chemistry 101").getCourseId();
+        entityManager.flush();
+        entityManager.clear();
+
+        StudentDTO enrolled = studentService.enrollInCourse(id, chemistry);
+
+        assertThat(enrolled.getEnrolledCourses()).extracting("name").containsExactly("Math 101", "Physics 101", "Chemistry 101");
+        assertThat(enrolledCounts()).containsExactly(STUDENTS, STUDENTS, 1);
+
+        StudentDTO unenrolled = studentService.unenrollFromCourse(id, chemistry);
+        studentService.unenrollFromCourse(id, chemistry);
+
+        assertThat(unenrolled.getEnrolledCourses()).extracting("name").containsExactly("Math 101", "Physics 101");
+        assertThat(enrolledCounts()).containsExactly(STUDENTS, STUDENTS, 0);
+    }
+
+    @Test
+    void testDeactivateStudentsHandlesAGraduatingClassInAHandfulOfStatements() {
+        List<Student> graduates = new ArrayList<>();
+        for (int i = 0; i < GRADUATES; i++) {
+            Student student = new Student();
+            student.setFirstName("Grad" + i);
+            student.setLastName("Uate" + i);
+            student.setEmail("grad" + i + "@sms.com");
+            graduates.add(student);
+        }
+        List<Integer> ids = studentBatchRepository.insertAll(graduates);
+        Integer courseId = entityManager.createQuery("select min(c.courseId) from Course c", Integer.class).getSingleResult();
+        enrollmentBatchRepository.insertAll(courseId, ids);
+        recountEnrollments();
+        statistics.clear();
+
+        int deactivated = studentService.deactivateStudents(ids);
+
+        assertThat(deactivated).isEqualTo(GRADUATES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5L * (GRADUATES / SMSConstants.DEACTIVATION_CHUNK_SIZE));
+        assertThat(enrollmentCount(ids)).isZero();
+        assertThat(enrolledCounts()).containsExactly(STUDENTS, STUDENTS);
+        assertThat(entityManager.createQuery("select count(s) from Student s where s.studentId in :ids and s.status = :status", Long.class)
+                .setParameter("ids", ids).setParameter("status", Student.Status.Active).getSingleResult()).isZero();
+    }
+
+    // the fixtures insert enrollments directly, so bring the counters in line the way the schema backfill does
+    private void recountEnrollments() {
+        entityManager.createQuery("update Course c set c.enrolledCount ="
+                + " (select cast(count(e) as Integer) from Enrollment e where e.course = c)").executeUpdate();
+    }
+
+    private List<Integer> enrolledCounts() {
+        return entityManager.createQuery("select c.enrolledCount from Course c order by c.courseId", Integer.class)
+                .getResultList();
+    }
+
+    private long enrollmentCount(List<Integer> studentIds) {
+        return entityManager.createQuery("select count(e) from Enrollment e where e.student.studentId in :ids", Long.class)
+                .setParameter("ids", studentIds).getSingleResult();
+    }
+
+    private StudentDTO studentDTO(Integer id, String phone) {
+        StudentDTO current = studentService.getStudentById(id);
+        statistics.clear();
+        return StudentDTO.builder().firstName(current.getFirstName()).lastName(current.getLastName())
+                .email(current.getEmail()).phoneNumber(phone).address("Campus housing").build();
+    }
+
+    private Course course(String name) {
+        Course course = new Course();
+        course.setName(name);
+        course.setCredits(3);
+        course.setStatus(Course.Status.Active);
+        entityManager.persist(course);
+        return course;
+    }
+
+    private Enrollment enrollment(Student student, Course course) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.setStudent(student);
+        enrollment.setCourse(course);
+        enrollment.setStatus(Enrollment.Status.Active);
+        return enrollment;
+    }
+}
@@ -0,0 +1,79 @@
+package com.sms.search;
+
+import com.sms.constants.SMSConstants;
+import com.sms.dto.StudentSuggestionDTO;
+import com.sms.repository.projection.StudentSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypeaheadIndexTest {
+
+    private final TypeaheadIndex index = new TypeaheadIndex(100_000);
+
+    @Test
+    void testMatchesEveryWordAsAPrefixOfANameOrTheEmail() {
+        index.put(List.of(
+                student(1, "Mary-Jane", "Watson", "mj@sms.com"),
+                student(2, "Marie", "Curie", "marie.curie@sms.com"),
+                student(3, "Pierre", "Curie", "pierre@sms.com")));
+
+        assertThat(ids("mar")).containsExactly(2, 1);
+        assertThat(ids("jane")).containsExactly(1);
+        assertThat(ids("cur")).containsExactly(2, 3);
+        assertThat(ids("curie p")).containsExactly(3);
+        assertThat(ids("marie.c")).containsExactly(2);
+        assertThat(ids("  ")).isEmpty();
+        assertThat(index.suggest("wat", 5)).containsExactly(new StudentSuggestionDTO(1, "Mary-Jane", "Watson", "mj@sms.com"));
+    }
+
+    @Test
+    void testUpdatesAndRemovalsDropTheOldTerms() {
+        index.put(List.of(student(1, "Ada", "Byron", "ada@sms.com")));
+        index.put(List.of(student(1, "Ada", "Lovelace", "ada@sms.com")));
+
+        assertThat(ids("byron")).isEmpty();
+        assertThat(ids("love")).containsExactly(1);
+
+        index.remove(List.of(1));
+        assertThat(ids("ada")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void testCommonPrefixStopsAtTheLimitAndTheScanBudget() {
+        List<StudentSummary> students = new ArrayList<>();
+        for (int id = 1; id <= 5000; id++) {
+            students.add(student(id, "Sam", "Smith" + id, "sam" + id + "@sms.com"));
+        }
+        index.put(students);
+
+        assertThat(ids("sam")).hasSize(10);
+        // nobody matches the second word, so the walk gives up after the scan budget instead of reading all 5000
+        assertThat(index.suggest("sam nobody", SMSConstants.MAX_SUGGEST_LIMIT)).isEmpty();
+    }
+
+    @Test
+    void testStudentsPastTheBudgetAreLeftOut() {
+        TypeaheadIndex small = new TypeaheadIndex(2);
+        small.put(List.of(student(1, "Alan", "Turing", "alan@sms.com"), student(2, "Alonzo", "Church", "alonzo@sms.com"),
+                student(3, "Alfred", "Tarski", "alfred@sms.com")));
+
+        assertThat(small.size()).isEqualTo(2);
+        assertThat(small.suggest("al", 10)).extracting(StudentSuggestionDTO::getId).containsExactlyInAnyOrder(1, 2);
+        small.remove(List.of(1));
+        small.put(List.of(student(3, "Alfred", "Tarski", "alfred@sms.com")));
+        assertThat(small.suggest("al", 10)).extracting(StudentSuggestionDTO::getId).containsExactlyInAnyOrder(2, 3);
+    }
+
+    private List<Integer> ids(String query) {
+        return index.suggest(query, 10).stream().map(StudentSuggestionDTO::getId).toList();
+    }
+
+    private static StudentSummary student(int id, String firstName, String lastName, String email) {
+        return new StudentSummary(id, firstName, lastName, email, null, "Campus");
+    }
+}
@@ -0,0 +1,85 @@
+package com.sms.service;
+
+import com.sms.constants.SMSConstants;
+import com.sms.dto.CourseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class CourseCacheTest {
+
+    @Autowired
+    private ICourseService courseService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testGetAllCoursesIsServedFromCacheUntilCatalogChanges() {
+        courseService.createCourse(course("Chemistry 101"));
+        int before = courseService.getAllCourses().size();
+
+        statistics.clear();
+        assertThat(courseService.getAllCourses()).hasSize(before);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        courseService.createCourse(course("Biology 101"));
+        assertThat(courseService.getAllCourses()).hasSize(before + 1);
+    }
+
+    @Test
+    void testGetCourseByIdSeesUpdateAndDelete() {
+        Integer id = courseService.createCourse(course("Algebra")).getId();
+        courseService.getCourseById(id);
+
+        statistics.clear();
+        courseService.getCourseById(id);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        courseService.updateCourse(id, course("Linear Algebra"));
+        assertThat(courseService.getCourseById(id).getName()).isEqualTo("Linear Algebra");
+
+        courseService.deleteCourse(id);
+        assertThat(courseService.getAllCourses()).extracting(CourseDTO::getId).doesNotContain(id);
+    }
+
+    @Test
+    void testCacheStatisticsArePublishedAsMeters() {
+        courseService.getAllCourses();
+        courseService.getAllCourses();
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", SMSConstants.ACTIVE_COURSES_CACHE)
+                .tag("result", "hit").functionCounter().count()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", SMSConstants.ACTIVE_COURSES_CACHE)
+                .functionCounter()).isNotNull();
+    }
+
+    private CourseDTO course(String name) {
+        return CourseDTO.builder().name(name).description(name).credits(3).build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.sms.service;
+
+import com.sms.dto.BulkEnrollmentResultDTO;
+import com.sms.dto.BulkRowResultDTO;
+import com.sms.dto.CourseDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.exception.CourseFullException;
+import com.sms.repository.CourseRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many more students than seats register for one course at the same moment, through both the
+ * single-seat and the bulk path. The default suite runs a small rush; the throughput report runs
+ * only with the benchmark profile (mvn test -Pbenchmark), sized with -Dstress.requests / -Dstress.capacity.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class CourseCapacityConcurrencyTest {
+
+    private static final int BULK_SIZE = 20;
+
+    @Autowired
+    private IStudentService studentService;
+
+    @Autowired
+    private IStudentEnrollmentService enrollmentService;
+
+    @Autowired
+    private ICourseService courseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testConcurrentEnrollmentsNeverOverbookTheCourse() throws Exception {
+        rush("rush", 200, 20);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void reportEnrollmentThroughputUnderContention() throws Exception {
+        int requests = Integer.getInteger("stress.requests", 400);
+        int capacity = Integer.getInteger("stress.capacity", 50);
+        RushResult result = rush("stress", requests, capacity);
+        System.out.printf("%d enrollment requests for %d seats (%d single, %d bulk x %d): %.0f requests/s%n",
+                result.requests(), capacity, result.singles(), result.batches(), BULK_SIZE,
+                result.requests() / (result.elapsedNanos() / 1_000_000_000d));
+    }
+
+    private RushResult rush(String emailPrefix, int requests, int capacity) throws Exception {
+        Integer courseId = courseService.createCourse(CourseDTO.builder()
+                .name("Intro to Programming").description("Opens at 9am").credits(4).capacity(capacity).build()).getId();
+        List<Integer> students = students(emailPrefix, requests);
+        // every tenth request is a bulk enrollment of BULK_SIZE students, the rest claim one seat each
+        List<Integer> singles = new ArrayList<>();
+        List<List<Integer>> batches = new ArrayList<>();
+        for (int i = 0; i < requests; i += BULK_SIZE) {
+            List<Integer> slice = students.subList(i, Math.min(i + BULK_SIZE, requests));
+            if ((i / BULK_SIZE) % 10 == 9) {
+                batches.add(slice);
+            } else {
+                singles.addAll(slice);
+            }
+        }
+
+        AtomicInteger seated = new AtomicInteger();
+        AtomicInteger turnedAway = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        long elapsed;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Integer studentId : singles) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        studentService.enrollInCourse(studentId, courseId);
+                        seated.incrementAndGet();
+                    } catch (CourseFullException ex) {
+                        turnedAway.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (List<Integer> batch : batches) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    BulkEnrollmentResultDTO result = enrollmentService.enrollStudents(courseId, batch);
+                    seated.addAndGet(result.getEnrolled().size());
+                    turnedAway.addAndGet(result.getCourseFull().size());
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                // any exception other than a full course fails the test here
+                future.get();
+            }
+            elapsed = System.nanoTime() - begin;
+        }
+
+        assertThat(seated.get()).isEqualTo(capacity);
+        assertThat(turnedAway.get()).isEqualTo(requests - capacity);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from sms.enrollments where course_id = ?",
+                Integer.class, courseId)).isEqualTo(capacity);
+        assertThat(courseRepository.findEnrolledCountByCourseId(courseId)).contains(capacity);
+        return new RushResult(singles.size() + batches.size(), singles.size(), batches.size(), elapsed);
+    }
+
+    private record RushResult(int requests, int singles, int batches, long elapsedNanos) {
+    }
+
+    private List<Integer> students(String emailPrefix, int count) {
+        List<StudentDTO> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(StudentDTO.builder()
+                    .firstName("First" + i).lastName("Last" + i)
+                    .email(emailPrefix + i + "@sms.com")
+                    .address("Campus housing")
+                    .build());
+        }
+        return studentService.importStudents(students).getRows().stream().map(BulkRowResultDTO::getId).toList();
+    }
+}
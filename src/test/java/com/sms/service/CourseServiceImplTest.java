@@ -1,11 +1,16 @@
 package com.sms.service;
 
+import com.sms.constants.SMSConstants;
 import com.sms.dto.CourseDTO;
+import com.sms.dto.CourseRosterEntryDTO;
+import com.sms.dto.FieldSelectionDTO;
+import com.sms.dto.PageResponseDTO;
 import com.sms.entity.Course;
-import com.sms.entity.Enrollment;
 import com.sms.exception.ResourceNotFoundException;
 import com.sms.repository.CourseRepository;
 import com.sms.repository.StudentEnrollmentRepository;
+import com.sms.repository.projection.CourseSummary;
+import com.sms.repository.projection.RosterEntry;
 import com.sms.service.impl.CourseServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,7 +18,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +38,9 @@ class CourseServiceImplTest {
     @Mock
     private StudentEnrollmentRepository studentEnrollmentRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CourseServiceImpl courseService;
 
@@ -57,38 +68,111 @@ class CourseServiceImplTest {
 
     @Test
     void testGetAllCoursesForAllActiveCourses() {
-        when(courseRepository.findAllByStatusEquals(Course.Status.Active))
-                .thenReturn(List.of(course));
+        when(courseRepository.findSummariesByStatusEqualsOrderByCourseIdAsc(Course.Status.Active))
+                .thenReturn(List.of(new CourseSummary(1, "Math 101", 3, "Math 101", null, 40)));
         List<CourseDTO> result = courseService.getAllCourses();
             assertNotNull(result);
             assertEquals(1, result.size());
-            verify(courseRepository).findAllByStatusEquals(Course.Status.Active);
+            verify(courseRepository).findSummariesByStatusEqualsOrderByCourseIdAsc(Course.Status.Active);
+    }
+
+    @Test
+    void testGetCoursesPageForNextCursorWhenMoreRowsExist() {
+        when(courseRepository.findSummariesByStatusEqualsAndCourseIdGreaterThanOrderByCourseIdAsc(Course.Status.Active, 0, Limit.of(2)))
+                .thenReturn(new ArrayList<>(List.of(new CourseSummary(1, "Math 101", 3, "Math 101", null, 40),
+                        new CourseSummary(2, "Physics 101", 3, "Physics 101", 60, 0))));
+
+        PageResponseDTO<CourseDTO> result = courseService.getCoursesPage(null, 1);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(40, result.getItems().getFirst().getEnrolledCount());
+        assertEquals(1, result.getNextCursor());
     }
 
     @Test
     void testFindCourseById() {
-        when(courseRepository.findByCourseIdAndStatusEquals(1, Course.Status.Active))
+        when(courseRepository.findActiveById(1))
                 .thenReturn(Optional.of(course));
 
-        when(studentEnrollmentRepository.findByCourse_CourseId(1))
-                .thenReturn(List.of(new Enrollment()));
+        when(courseRepository.findEnrolledCountByCourseId(1))
+                .thenReturn(Optional.of(600));
             CourseDTO result = courseService.getCourseById(1);
             assertNotNull(result);
-            verify(courseRepository).findByCourseIdAndStatusEquals(1, Course.Status.Active);
-            verify(studentEnrollmentRepository).findByCourse_CourseId(1);
+            assertEquals(600, result.getEnrolledCount());
+            assertNull(result.getEnrolledStudents());
+            verify(courseRepository).findActiveById(1);
+            verify(courseRepository).findEnrolledCountByCourseId(1);
+
+    }
+
+    @Test
+    void testGetCourseByIdForExpandedRosterWithoutCount() {
+        when(courseRepository.findActiveById(1))
+                .thenReturn(Optional.of(course));
+        when(studentEnrollmentRepository.findRosterByCourseId(1, 0, Limit.of(SMSConstants.MAX_PAGE_LIMIT + 1)))
+                .thenReturn(List.of(rosterEntry(7)));
+
+        CourseDTO result = courseService.getCourseById(1,
+                FieldSelectionDTO.forCourses(List.of("name"), List.of(FieldSelectionDTO.EXPAND_ENROLLMENTS)));
+
+        assertEquals("Math 101", result.getName());
+        assertNull(result.getCredits());
+        assertNull(result.getEnrolledCount());
+        assertEquals(1, result.getEnrolledStudents().size());
+        assertEquals("Last7", result.getEnrolledStudents().getFirst().getLastName());
+        assertNull(result.getEnrolledStudentsNextCursor());
+        verify(courseRepository, never()).findEnrolledCountByCourseId(any());
+    }
+
+    @Test
+    void testGetCourseByIdForExpandedRosterStopsAtOnePage() {
+        course.setCapacity(null);
+        List<RosterEntry> roster = new ArrayList<>();
+        for (int i = 1; i <= SMSConstants.MAX_PAGE_LIMIT + 1; i++) {
+            roster.add(rosterEntry(i));
+        }
+        when(courseRepository.findActiveById(1))
+                .thenReturn(Optional.of(course));
+        when(studentEnrollmentRepository.findRosterByCourseId(1, 0, Limit.of(SMSConstants.MAX_PAGE_LIMIT + 1)))
+                .thenReturn(roster);
 
+        CourseDTO result = courseService.getCourseById(1,
+                FieldSelectionDTO.forCourses(List.of("name"), List.of(FieldSelectionDTO.EXPAND_ENROLLMENTS)));
+
+        assertEquals(SMSConstants.MAX_PAGE_LIMIT, result.getEnrolledStudents().size());
+        assertEquals(SMSConstants.MAX_PAGE_LIMIT, result.getEnrolledStudentsNextCursor());
     }
 
     @Test
     void testGetCourseByIdForExceptionWhenCourseNotFound() {
 
-        when(courseRepository.findByCourseIdAndStatusEquals(1, Course.Status.Active))
+        when(courseRepository.findActiveById(1))
                 .thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class,
                 () -> courseService.getCourseById(1));
     }
 
+    @Test
+    void testGetCourseRosterForNextCursorWhenMoreRowsExist() {
+        when(courseRepository.findActiveById(1)).thenReturn(Optional.of(course));
+        when(studentEnrollmentRepository.findRosterByCourseId(1, 0, Limit.of(3)))
+                .thenReturn(new ArrayList<>(List.of(rosterEntry(4), rosterEntry(7), rosterEntry(9))));
+
+        PageResponseDTO<CourseRosterEntryDTO> result = courseService.getCourseRoster(1, null, 2);
+
+        assertEquals(List.of(4, 7), result.getItems().stream().map(CourseRosterEntryDTO::getStudentId).toList());
+        assertEquals(7, result.getNextCursor());
+    }
+
+    @Test
+    void testGetCourseRosterForExceptionWhenCourseNotFound() {
+        when(courseRepository.findActiveById(1)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> courseService.getCourseRoster(1, null, null));
+        verify(studentEnrollmentRepository, never()).findRosterByCourseId(any(), any(), any());
+    }
+
     @Test
     void testCreateCourse() {
         when(courseRepository.save(any(Course.class)))
@@ -136,4 +220,8 @@ class CourseServiceImplTest {
         assertThrows(ResourceNotFoundException.class,
                 () -> courseService.deleteCourse(1));
     }
-}
\ No newline at end of file
+
+    private static RosterEntry rosterEntry(Integer studentId) {
+        return new RosterEntry(studentId, "First" + studentId, "Last" + studentId, studentId + "@sms.com", LocalDate.now());
+    }
+}
@@ -0,0 +1,109 @@
+package com.sms.service;
+
+import com.sms.dto.CourseDTO;
+import com.sms.dto.SearchHitDTO;
+import com.sms.dto.StudentSuggestionDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.search.SearchIndexListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class SearchServiceTest {
+
+    @Autowired
+    private ISearchService searchService;
+
+    @Autowired
+    private IStudentService studentService;
+
+    @Autowired
+    private ICourseService courseService;
+
+    @Autowired
+    private SearchIndexListener searchIndexListener;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testFindsStudentsByNamePrefixEmailAndPhone() throws Exception {
+        Integer grace = studentService.createStudent(student("Grace", "Hopper", "grace.hopper@sms.com", "5550101234")).getId();
+        Integer gregor = studentService.createStudent(student("Gregor", "Mendel", "peas@sms.com", "5550109999")).getId();
+        awaitTrue(() -> search("gr", SearchHitDTO.Type.STUDENT).size() >= 2);
+
+        assertThat(search("gr", SearchHitDTO.Type.STUDENT)).extracting(SearchHitDTO::getId).containsOnly(grace, gregor);
+        assertThat(search("grace hop", null)).extracting(SearchHitDTO::getType, SearchHitDTO::getId, SearchHitDTO::getDetail)
+                .containsExactly(tuple(SearchHitDTO.Type.STUDENT, grace, "grace.hopper@sms.com"));
+        assertThat(search("peas@sms.com", null)).extracting(SearchHitDTO::getId).containsExactly(gregor);
+        assertThat(search("555-0109", null)).extracting(SearchHitDTO::getId).containsExactly(gregor);
+        assertThat(search("555010", null)).extracting(SearchHitDTO::getId).containsOnly(grace, gregor);
+    }
+
+    @Test
+    void testSuggestionsFollowStudentWrites() throws Exception {
+        Integer barbara = studentService.createStudent(student("Barbara", "Liskov", "liskov@sms.com", null)).getId();
+        awaitTrue(() -> !searchService.suggestStudents("lisk", null).isEmpty());
+        assertThat(searchService.suggestStudents("barb lis", null)).extracting(StudentSuggestionDTO::getId).containsExactly(barbara);
+
+        studentService.deactivateStudents(List.of(barbara));
+        awaitTrue(() -> searchService.suggestStudents("lisk", null).isEmpty());
+    }
+
+    @Test
+    void testFollowsCourseEditsAndDeletes() throws Exception {
+        CourseDTO course = courseService.createCourse(CourseDTO.builder()
+                .name("Heliophysics").description("Solar wind and the heliosphere").credits(4).build());
+        awaitTrue(() -> !search("heliosphere", SearchHitDTO.Type.COURSE).isEmpty());
+        assertThat(search("helio", SearchHitDTO.Type.STUDENT)).isEmpty();
+
+        course.setName("Magnetohydrodynamics");
+        courseService.updateCourse(course.getId(), course);
+        awaitTrue(() -> !search("magnetohydrodynamics", null).isEmpty());
+        assertThat(search("heliophysics", null)).isEmpty();
+
+        courseService.deleteCourse(course.getId());
+        awaitTrue(() -> search("magnetohydrodynamics", null).isEmpty());
+    }
+
+    @Test
+    void testRebuildPicksUpRowsWrittenBehindTheIndex() throws Exception {
+        Integer ada = studentService.createStudent(student("Ada", "Byron", "ada.byron@sms.com", null)).getId();
+        awaitTrue(() -> !search("byron", null).isEmpty());
+        jdbcTemplate.update("update sms.student set last_name = 'Lovelace' where student_id = ?", ada);
+        assertThat(search("lovelace", null)).isEmpty();
+
+        searchIndexListener.rebuild();
+
+        assertThat(search("lovelace", null)).extracting(SearchHitDTO::getId).containsExactly(ada);
+        studentService.deleteStudent(ada);
+        awaitTrue(() -> search("lovelace", null).isEmpty());
+    }
+
+    private List<SearchHitDTO> search(String query, SearchHitDTO.Type type) {
+        return searchService.search(query, type, null);
+    }
+
+    private static StudentDTO student(String firstName, String lastName, String email, String phone) {
+        return StudentDTO.builder().firstName(firstName).lastName(lastName).email(email).phoneNumber(phone)
+                .address("Campus housing").build();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
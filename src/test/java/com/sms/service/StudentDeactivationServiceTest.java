@@ -0,0 +1,105 @@
+package com.sms.service;
+
+import com.sms.dto.BulkDeactivationJobDTO;
+import com.sms.dto.BulkDeactivationRequestDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.entity.Student;
+import com.sms.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class StudentDeactivationServiceTest {
+
+    @Autowired
+    private IStudentDeactivationService deactivationService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private IStudentService studentService;
+
+    @Test
+    void testDeactivateByEnrollmentDateWalksEveryChunk() throws Exception {
+        List<Integer> graduates = students("grad", 2500, LocalDate.of(1990, 9, 1));
+        List<Integer> freshmen = students("fresh", 3, LocalDate.of(1995, 9, 1));
+
+        BulkDeactivationJobDTO job = deactivationService.startDeactivation(
+                new BulkDeactivationRequestDTO(null, LocalDate.of(1991, 1, 1)));
+        assertThat(job.getTotal()).isEqualTo(2500);
+        job = awaitFinished(job.getJobId());
+
+        assertThat(job.getStatus()).isEqualTo(BulkDeactivationJobDTO.Status.COMPLETED);
+        assertThat(job.getProcessed()).isEqualTo(2500);
+        assertThat(job.getDeactivated()).isEqualTo(2500);
+        assertThat(studentRepository.findIdsByStudentIdInAndStatus(graduates, Student.Status.Active)).isEmpty();
+        assertThat(studentRepository.findIdsByStudentIdInAndStatus(freshmen, Student.Status.Active)).hasSize(3);
+    }
+
+    @Test
+    void testDeactivateByIdsCountsOnlyStudentsThatWereActive() throws Exception {
+        List<Integer> ids = new ArrayList<>(students("listed", 4, LocalDate.of(2000, 9, 1)));
+        ids.add(ids.getFirst());
+        ids.add(Integer.MAX_VALUE);
+
+        BulkDeactivationJobDTO job = awaitFinished(deactivationService.startDeactivation(
+                new BulkDeactivationRequestDTO(ids, null)).getJobId());
+
+        assertThat(job.getStatus()).isEqualTo(BulkDeactivationJobDTO.Status.COMPLETED);
+        assertThat(job.getTotal()).isEqualTo(5);
+        assertThat(job.getProcessed()).isEqualTo(5);
+        assertThat(job.getDeactivated()).isEqualTo(4);
+        assertThat(job.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    void testStudentsCreatedThroughTheServicesMatchTheEnrollmentDateFilter() {
+        Integer created = studentService.createStudent(StudentDTO.builder()
+                .firstName("Api").lastName("Created").email("api@deactivation.sms.com").address("Campus").build()).getId();
+        Integer imported = studentService.importStudents(List.of(StudentDTO.builder()
+                        .firstName("Bulk").lastName("Imported").email("bulk@deactivation.sms.com").address("Campus").build()))
+                .getRows().getFirst().getId();
+
+        // read rather than run a job, which would also deactivate the other tests' students
+        assertThat(studentRepository.findIdsByStatusAndEnrollmentDateBefore(Student.Status.Active,
+                LocalDate.now().plusDays(1), Math.min(created, imported) - 1, Limit.of(Integer.MAX_VALUE)))
+                .contains(created, imported);
+        assertThat(studentRepository.findIdsByStatusAndEnrollmentDateBefore(Student.Status.Active,
+                LocalDate.now(), Math.min(created, imported) - 1, Limit.of(Integer.MAX_VALUE)))
+                .doesNotContain(created, imported);
+    }
+
+    private BulkDeactivationJobDTO awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        BulkDeactivationJobDTO job = deactivationService.getDeactivationJob(jobId);
+        while (job.getStatus() == BulkDeactivationJobDTO.Status.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            job = deactivationService.getDeactivationJob(jobId);
+        }
+        return job;
+    }
+
+    private List<Integer> students(String prefix, int count, LocalDate enrollmentDate) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Student student = new Student();
+            student.setFirstName(prefix + i);
+            student.setLastName(prefix + i);
+            student.setEmail(prefix + i + "@deactivation.sms.com");
+            student.setEnrollmentDate(enrollmentDate);
+            students.add(student);
+        }
+        return studentRepository.saveAll(students).stream().map(Student::getStudentId).toList();
+    }
+}
@@ -0,0 +1,117 @@
+package com.sms.service;
+
+import com.sms.dto.BulkEnrollmentResultDTO;
+import com.sms.dto.EnrollmentEventDTO;
+import com.sms.entity.Course;
+import com.sms.entity.Student;
+import com.sms.exception.ResourceNotFoundException;
+import com.sms.outbox.EnrollmentOutbox;
+import com.sms.repository.CourseRepository;
+import com.sms.repository.EnrollmentBatchRepository;
+import com.sms.repository.StudentEnrollmentRepository;
+import com.sms.repository.StudentRepository;
+import com.sms.repository.WaitlistRepository;
+import com.sms.service.impl.StudentEnrollmentServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StudentEnrollmentServiceImplTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private StudentEnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private EnrollmentBatchRepository enrollmentBatchRepository;
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private EnrollmentOutbox enrollmentOutbox;
+
+    @InjectMocks
+    private StudentEnrollmentServiceImpl enrollmentService;
+
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        course = new Course();
+        course.setCourseId(1);
+        course.setStatus(Course.Status.Active);
+    }
+
+    @Test
+    void testEnrollStudentsForSortsStudentsIntoOutcomes() {
+        when(courseRepository.findActiveByIdForUpdate(1)).thenReturn(Optional.of(course));
+        when(studentRepository.findIdsByStudentIdInAndStatus(Set.of(10, 11, 12, 13, 14), Student.Status.Active))
+                .thenReturn(List.of(10, 11, 12, 13));
+        when(enrollmentRepository.findStudentIdsByCourseIdAndStudentIdIn(1, Set.of(10, 11, 12, 13, 14)))
+                .thenReturn(List.of(11));
+        when(enrollmentBatchRepository.insertAll(1, List.of(10, 12, 13))).thenReturn(List.of(10, 12, 13));
+
+        BulkEnrollmentResultDTO result = enrollmentService.enrollStudents(1, List.of(10, 11, 12, 13, 14, 10));
+
+        assertThat(result.getEnrolled()).containsExactly(10, 12, 13);
+        assertThat(result.getAlreadyEnrolled()).containsExactly(11);
+        assertThat(result.getNotFound()).containsExactly(14);
+        assertThat(result.getCourseFull()).isEmpty();
+        verify(courseRepository).adjustEnrolledCounts(List.of(1), 3);
+        verify(enrollmentOutbox).recordForCourse(EnrollmentEventDTO.Type.ENROLLED, 1, List.of(10, 12, 13));
+    }
+
+    @Test
+    void testEnrollStudentsForOnlyFillsTheSeatsLeft() {
+        course.setCapacity(30);
+        course.setEnrolledCount(28);
+        when(courseRepository.findActiveByIdForUpdate(1)).thenReturn(Optional.of(course));
+        when(studentRepository.findIdsByStudentIdInAndStatus(Set.of(10, 11, 12, 13), Student.Status.Active))
+                .thenReturn(List.of(10, 11, 12, 13));
+        when(enrollmentBatchRepository.insertAll(1, List.of(10, 11))).thenReturn(List.of(10, 11));
+
+        BulkEnrollmentResultDTO result = enrollmentService.enrollStudents(1, List.of(10, 11, 12, 13));
+
+        assertThat(result.getEnrolled()).containsExactly(10, 11);
+        assertThat(result.getCourseFull()).containsExactly(12, 13);
+        verify(courseRepository).adjustEnrolledCounts(List.of(1), 2);
+    }
+
+    @Test
+    void testEnrollStudentsForNoInsertWhenNothingToEnroll() {
+        when(courseRepository.findActiveByIdForUpdate(1)).thenReturn(Optional.of(course));
+        when(studentRepository.findIdsByStudentIdInAndStatus(any(), eq(Student.Status.Active))).thenReturn(List.of());
+
+        BulkEnrollmentResultDTO result = enrollmentService.enrollStudents(1, List.of(99));
+
+        assertThat(result.getNotFound()).containsExactly(99);
+        verify(enrollmentBatchRepository, never()).insertAll(any(), any());
+        verify(courseRepository, never()).adjustEnrolledCounts(any(), anyInt());
+    }
+
+    @Test
+    void testEnrollStudentsForResourceNotFoundExceptionWhenCourseNotFound() {
+        when(courseRepository.findActiveByIdForUpdate(99)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> enrollmentService.enrollStudents(99, List.of(1)))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
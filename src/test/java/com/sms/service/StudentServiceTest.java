@@ -1,24 +1,39 @@
 package com.sms.service;
 
+import com.sms.constants.SMSConstants;
+import com.sms.dto.CourseDTO;
+import com.sms.dto.EnrollmentEventDTO;
+import com.sms.dto.FieldSelectionDTO;
+import com.sms.dto.PageResponseDTO;
 import com.sms.dto.StudentDTO;
 import com.sms.entity.Course;
 import com.sms.entity.Enrollment;
 import com.sms.entity.Student;
+import com.sms.event.SeatsReleasedEvent;
+import com.sms.exception.CourseFullException;
 import com.sms.exception.ResourceNotFoundException;
+import com.sms.outbox.EnrollmentOutbox;
 import com.sms.repository.CourseRepository;
 import com.sms.repository.StudentEnrollmentRepository;
 import com.sms.repository.StudentRepository;
+import com.sms.repository.WaitlistRepository;
+import com.sms.repository.projection.EnrolledCourse;
+import com.sms.repository.projection.StudentSummary;
 import com.sms.service.impl.StudentServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -36,6 +51,15 @@ class StudentServiceImplTest {
     @Mock
     private CourseRepository courseRepository;
 
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EnrollmentOutbox enrollmentOutbox;
+
     @InjectMocks
     private StudentServiceImpl studentService;
 
@@ -81,18 +105,21 @@ class StudentServiceImplTest {
 
     @Test
     void testGetAllStudentsForActiveStudents() {
-        when(studentRepository.findAllByStatusEquals(Student.Status.Active))
-                .thenReturn(List.of(activeStudent));
+        when(studentRepository.findSummariesByStatusEqualsOrderByStudentIdAsc(Student.Status.Active))
+                .thenReturn(List.of(summary(1)));
+        when(enrollmentRepository.findEnrolledCoursesByStudentStatus(Student.Status.Active))
+                .thenReturn(List.of(new EnrolledCourse(1, 1, "Math 101", 3, "Math 101")));
 
         List<StudentDTO> result = studentService.getAllStudents();
 
         assertThat(result).isNotNull().hasSize(1);
-        verify(studentRepository).findAllByStatusEquals(Student.Status.Active);
+        assertThat(result.getFirst().getEnrolledCourses()).extracting("name").containsExactly("Math 101");
+        verify(studentRepository).findSummariesByStatusEqualsOrderByStudentIdAsc(Student.Status.Active);
     }
 
     @Test
     void testGetAllStudentsForEmptyListWhenNoActiveStudents() {
-        when(studentRepository.findAllByStatusEquals(Student.Status.Active))
+        when(studentRepository.findSummariesByStatusEqualsOrderByStudentIdAsc(Student.Status.Active))
                 .thenReturn(List.of());
 
         List<StudentDTO> result = studentService.getAllStudents();
@@ -100,22 +127,82 @@ class StudentServiceImplTest {
         assertThat(result).isNotNull().isEmpty();
     }
 
+    @Test
+    void testGetAllStudentsForSelectedFieldsSkipsEnrollmentQuery() {
+        when(studentRepository.findSummariesByStatusEqualsOrderByStudentIdAsc(Student.Status.Active))
+                .thenReturn(List.of(summary(1)));
+
+        List<StudentDTO> result = studentService.getAllStudents(
+                FieldSelectionDTO.forStudents(List.of("id", "lastName"), null));
+
+        assertThat(result).isNotNull().hasSize(1);
+        assertThat(result.getFirst().getId()).isEqualTo(1);
+        assertThat(result.getFirst().getLastName()).isNotNull();
+        assertThat(result.getFirst().getFirstName()).isNull();
+        assertThat(result.getFirst().getEnrolledCourses()).isNull();
+        verify(enrollmentRepository, never()).findEnrolledCoursesByStudentStatus(any());
+    }
+
+    // ─── getStudentsPage ──────────────────────────────────────────────────────
+
+    @Test
+    void testGetStudentsPageForNextCursorWhenMoreRowsExist() {
+        when(studentRepository.findSummariesByStatusEqualsAndStudentIdGreaterThanOrderByStudentIdAsc(Student.Status.Active, 0, Limit.of(3)))
+                .thenReturn(new ArrayList<>(List.of(summary(1), summary(2), summary(3))));
+        when(enrollmentRepository.findEnrolledCoursesByStudentIdIn(List.of(1, 2)))
+                .thenReturn(List.of(new EnrolledCourse(2, 1, "Math 101", 3, "Math 101")));
+
+        PageResponseDTO<StudentDTO> result = studentService.getStudentsPage(null, 2);
+
+        assertThat(result.getItems()).hasSize(2);
+        assertThat(result.getItems().getFirst().getEnrolledCourses()).isEmpty();
+        assertThat(result.getItems().getLast().getEnrolledCourses()).hasSize(1);
+        assertThat(result.getNextCursor()).isEqualTo(2);
+    }
+
+    @Test
+    void testGetStudentsPageForNoCursorOnLastPage() {
+        when(studentRepository.findSummariesByStatusEqualsAndStudentIdGreaterThanOrderByStudentIdAsc(
+                Student.Status.Active, 1, Limit.of(SMSConstants.MAX_PAGE_LIMIT + 1)))
+                .thenReturn(List.of());
+
+        PageResponseDTO<StudentDTO> result = studentService.getStudentsPage(1, 100_000);
+
+        assertThat(result.getItems()).isEmpty();
+        assertThat(result.getNextCursor()).isNull();
+        verify(enrollmentRepository, never()).findEnrolledCoursesByStudentIdIn(any());
+    }
+
     // ─── getStudentById ───────────────────────────────────────────────────────
 
     @Test
     void testGetStudentByIdForStudentFound() {
-        when(studentRepository.findByStudentIdAndStatusEquals(1, Student.Status.Active))
+        when(studentRepository.findWithEnrollmentsByStudentIdAndStatusEquals(1, Student.Status.Active))
                 .thenReturn(Optional.of(activeStudent));
 
         StudentDTO result = studentService.getStudentById(1);
 
         assertThat(result).isNotNull();
-        verify(studentRepository).findByStudentIdAndStatusEquals(1, Student.Status.Active);
+        verify(studentRepository).findWithEnrollmentsByStudentIdAndStatusEquals(1, Student.Status.Active);
+    }
+
+    @Test
+    void testGetStudentByIdForSelectedFieldsLoadsWithoutEnrollments() {
+        when(studentRepository.findByStudentIdAndStatusEquals(1, Student.Status.Active))
+                .thenReturn(Optional.of(activeStudent));
+
+        StudentDTO result = studentService.getStudentById(1, FieldSelectionDTO.forStudents(List.of("email"), null));
+
+        assertThat(result).isNotNull();
+        assertThat(result.getEmail()).isEqualTo(activeStudent.getEmail());
+        assertThat(result.getId()).isNull();
+        assertThat(result.getEnrolledCourses()).isNull();
+        verify(studentRepository, never()).findWithEnrollmentsByStudentIdAndStatusEquals(any(), any());
     }
 
     @Test
     void testGetStudentByIdForResourceNotFoundExceptionWhenNotFound() {
-        when(studentRepository.findByStudentIdAndStatusEquals(99, Student.Status.Active))
+        when(studentRepository.findWithEnrollmentsByStudentIdAndStatusEquals(99, Student.Status.Active))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> studentService.getStudentById(99))
@@ -124,7 +211,7 @@ class StudentServiceImplTest {
 
     @Test
     void testGetStudentByIdForResourceNotFoundExceptionForInactiveStudent() {
-        when(studentRepository.findByStudentIdAndStatusEquals(2, Student.Status.Active))
+        when(studentRepository.findWithEnrollmentsByStudentIdAndStatusEquals(2, Student.Status.Active))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> studentService.getStudentById(2))
@@ -142,6 +229,41 @@ class StudentServiceImplTest {
         verify(studentRepository).save(any(Student.class));
     }
 
+    @Test
+    void testCreateStudentClaimsASeatForEachSentCourse() {
+        studentDTO.setEnrolledCourses(List.of(CourseDTO.builder().id(3).build()));
+        Course chemistry = new Course();
+        chemistry.setCourseId(3);
+        when(studentRepository.save(any(Student.class))).thenReturn(activeStudent);
+        when(enrollmentRepository.findCourseIdsByStudentId(1)).thenReturn(List.of());
+        when(courseRepository.findActiveIdsByCourseIdIn(Set.of(3))).thenReturn(List.of(3));
+        when(courseRepository.claimSeat(3)).thenReturn(1);
+        when(courseRepository.getReferenceById(3)).thenReturn(chemistry);
+
+        studentService.createStudent(studentDTO);
+
+        verify(studentRepository).save(argThat(student -> student.getEnrollments().isEmpty()));
+        verify(enrollmentRepository).saveAll(argThat(enrollments -> {
+            List<Enrollment> saved = new ArrayList<>();
+            enrollments.forEach(saved::add);
+            return saved.size() == 1 && saved.getFirst().getCourse() == chemistry;
+        }));
+        verify(enrollmentOutbox).recordForStudent(EnrollmentEventDTO.Type.ENROLLED, 1, Set.of(3));
+    }
+
+    @Test
+    void testCreateStudentForCourseFullExceptionWhenSentCourseHasNoSeats() {
+        studentDTO.setEnrolledCourses(List.of(CourseDTO.builder().id(3).build()));
+        when(studentRepository.save(any(Student.class))).thenReturn(activeStudent);
+        when(enrollmentRepository.findCourseIdsByStudentId(1)).thenReturn(List.of());
+        when(courseRepository.findActiveIdsByCourseIdIn(Set.of(3))).thenReturn(List.of(3));
+        when(courseRepository.claimSeat(3)).thenReturn(0);
+
+        assertThatThrownBy(() -> studentService.createStudent(studentDTO))
+                .isInstanceOf(CourseFullException.class);
+        verify(enrollmentRepository, never()).saveAll(any());
+    }
+
     // ─── updateStudent ────────────────────────────────────────────────────────
 
     @Test
@@ -155,7 +277,6 @@ class StudentServiceImplTest {
         StudentDTO result = studentService.updateStudent(1, studentDTO);
 
         assertThat(result).isNotNull();
-        verify(enrollmentRepository).deleteByStudent_StudentId(1);
         verify(studentRepository).saveAndFlush(any(Student.class));
     }
 
@@ -167,23 +288,77 @@ class StudentServiceImplTest {
         assertThatThrownBy(() -> studentService.updateStudent(99, studentDTO))
                 .isInstanceOf(ResourceNotFoundException.class);
 
-        verify(enrollmentRepository, never()).deleteByStudent_StudentId(any());
+        verify(enrollmentRepository, never()).deleteByStudentIdAndCourseIdIn(any(), any());
         verify(studentRepository, never()).saveAndFlush(any());
     }
 
     @Test
-    void testUpdateStudentClearsExistingEnrollmentsBeforeSaving() {
-        List<Enrollment> enrollments = new ArrayList<>(List.of(enrollment));
-        activeStudent.setEnrollments(enrollments);
+    void testUpdateStudentLeavesEnrollmentsAloneWhenCoursesAreNotSent() {
+        when(studentRepository.findByStudentIdAndStatusEquals(1, Student.Status.Active))
+                .thenReturn(Optional.of(activeStudent));
+        when(studentRepository.saveAndFlush(any(Student.class))).thenReturn(activeStudent);
+
+        studentService.updateStudent(1, studentDTO);
+
+        verify(enrollmentRepository, never()).findCourseIdsByStudentId(any());
+        verify(enrollmentRepository, never()).deleteByStudentIdAndCourseIdIn(any(), any());
+        verify(enrollmentRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testUpdateStudentOnlyDeletesRemovedAndInsertsAddedCourses() {
+        studentDTO.setEnrolledCourses(List.of(CourseDTO.builder().id(2).build(), CourseDTO.builder().id(3).build()));
+        Course chemistry = new Course();
+        chemistry.setCourseId(3);
 
         when(studentRepository.findByStudentIdAndStatusEquals(1, Student.Status.Active))
                 .thenReturn(Optional.of(activeStudent));
         when(studentRepository.saveAndFlush(any(Student.class))).thenReturn(activeStudent);
+        when(enrollmentRepository.findCourseIdsByStudentId(1)).thenReturn(List.of(1, 2));
+        when(courseRepository.findActiveIdsByCourseIdIn(Set.of(3))).thenReturn(List.of(3));
+        when(courseRepository.claimSeat(3)).thenReturn(1);
+        when(courseRepository.getReferenceById(3)).thenReturn(chemistry);
 
         studentService.updateStudent(1, studentDTO);
 
-        verify(enrollmentRepository).deleteByStudent_StudentId(1);
-        assertThat(activeStudent.getEnrollments()).isEmpty();
+        verify(enrollmentRepository).deleteByStudentIdAndCourseIdIn(1, Set.of(1));
+        verify(enrollmentRepository).saveAll(argThat(enrollments -> {
+            List<Enrollment> saved = new ArrayList<>();
+            enrollments.forEach(saved::add);
+            return saved.size() == 1 && saved.getFirst().getCourse() == chemistry;
+        }));
+        verify(enrollmentRepository, never()).deleteAllByStudentIdIn(any());
+    }
+
+    @Test
+    void testUpdateStudentForResourceNotFoundExceptionWhenAddedCourseIsMissing() {
+        studentDTO.setEnrolledCourses(List.of(CourseDTO.builder().id(42).build()));
+
+        when(studentRepository.findByStudentIdAndStatusEquals(1, Student.Status.Active))
+                .thenReturn(Optional.of(activeStudent));
+        when(studentRepository.saveAndFlush(any(Student.class))).thenReturn(activeStudent);
+        when(enrollmentRepository.findCourseIdsByStudentId(1)).thenReturn(List.of());
+        when(courseRepository.findActiveIdsByCourseIdIn(Set.of(42))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> studentService.updateStudent(1, studentDTO))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(enrollmentRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testUpdateStudentForCourseFullExceptionWhenAddedCourseHasNoSeats() {
+        studentDTO.setEnrolledCourses(List.of(CourseDTO.builder().id(3).build()));
+
+        when(studentRepository.findByStudentIdAndStatusEquals(1, Student.Status.Active))
+                .thenReturn(Optional.of(activeStudent));
+        when(studentRepository.saveAndFlush(any(Student.class))).thenReturn(activeStudent);
+        when(enrollmentRepository.findCourseIdsByStudentId(1)).thenReturn(List.of());
+        when(courseRepository.findActiveIdsByCourseIdIn(Set.of(3))).thenReturn(List.of(3));
+        when(courseRepository.claimSeat(3)).thenReturn(0);
+
+        assertThatThrownBy(() -> studentService.updateStudent(1, studentDTO))
+                .isInstanceOf(CourseFullException.class);
+        verify(enrollmentRepository, never()).saveAll(any());
     }
 
     // ─── enrollInCourse ───────────────────────────────────────────────────────
@@ -192,11 +367,41 @@ class StudentServiceImplTest {
     void testEnrollInCourseForSaveEnrollmentSuccess() {
         when(studentRepository.findById(1)).thenReturn(Optional.of(activeStudent));
         when(courseRepository.findById(1)).thenReturn(Optional.of(course));
+        when(courseRepository.claimSeat(1)).thenReturn(1);
         when(enrollmentRepository.save(any(Enrollment.class))).thenReturn(enrollment);
 
-        studentService.enrollInCourse(1, 1);
+        StudentDTO result = studentService.enrollInCourse(1, 1);
 
+        assertThat(result.getId()).isEqualTo(1);
+        verify(courseRepository).claimSeat(1);
         verify(enrollmentRepository).save(any(Enrollment.class));
+        verify(enrollmentOutbox).recordForStudent(EnrollmentEventDTO.Type.ENROLLED, 1, List.of(1));
+    }
+
+    @Test
+    void testEnrollInCourseForNoOpWhenAlreadyEnrolled() {
+        when(studentRepository.findById(1)).thenReturn(Optional.of(activeStudent));
+        when(courseRepository.findById(1)).thenReturn(Optional.of(course));
+        when(enrollmentRepository.findStudentIdsByCourseIdAndStudentIdIn(1, List.of(1))).thenReturn(List.of(1));
+
+        StudentDTO result = studentService.enrollInCourse(1, 1);
+
+        assertThat(result.getId()).isEqualTo(1);
+        verify(courseRepository, never()).claimSeat(any());
+        verify(enrollmentRepository, never()).save(any());
+        verifyNoInteractions(enrollmentOutbox);
+    }
+
+    @Test
+    void testEnrollInCourseForCourseFullExceptionWhenNoSeatIsLeft() {
+        when(studentRepository.findById(1)).thenReturn(Optional.of(activeStudent));
+        when(courseRepository.findById(1)).thenReturn(Optional.of(course));
+        when(courseRepository.claimSeat(1)).thenReturn(0);
+
+        assertThatThrownBy(() -> studentService.enrollInCourse(1, 1))
+                .isInstanceOf(CourseFullException.class);
+
+        verify(enrollmentRepository, never()).save(any());
     }
 
     @Test
@@ -227,9 +432,14 @@ class StudentServiceImplTest {
         when(studentRepository.findById(1)).thenReturn(Optional.of(activeStudent));
         when(courseRepository.findById(1)).thenReturn(Optional.of(course));
 
+        when(enrollmentRepository.deleteByStudentIdAndCourseIdIn(1, List.of(1))).thenReturn(1);
+
         studentService.unenrollFromCourse(1, 1);
 
-        verify(enrollmentRepository).delete(any(Enrollment.class));
+        verify(enrollmentRepository).deleteByStudentIdAndCourseIdIn(1, List.of(1));
+        verify(courseRepository).adjustEnrolledCounts(List.of(1), -1);
+        verify(eventPublisher).publishEvent(SeatsReleasedEvent.of(List.of(1)));
+        verify(enrollmentOutbox).recordForStudent(EnrollmentEventDTO.Type.UNENROLLED, 1, List.of(1));
     }
 
     @Test
@@ -239,7 +449,7 @@ class StudentServiceImplTest {
         assertThatThrownBy(() -> studentService.unenrollFromCourse(99, 1))
                 .isInstanceOf(ResourceNotFoundException.class);
 
-        verify(enrollmentRepository, never()).delete(any());
+        verify(enrollmentRepository, never()).deleteByStudentIdAndCourseIdIn(any(), any());
     }
 
     @Test
@@ -250,46 +460,77 @@ class StudentServiceImplTest {
         assertThatThrownBy(() -> studentService.unenrollFromCourse(1, 99))
                 .isInstanceOf(ResourceNotFoundException.class);
 
-        verify(enrollmentRepository, never()).delete(any());
+        verify(enrollmentRepository, never()).deleteByStudentIdAndCourseIdIn(any(), any());
     }
 
     // ─── deleteStudent ────────────────────────────────────────────────────────
 
     @Test
     void testDeleteStudentForSetStatusToInactiveAndClearsEnrollments() {
-        activeStudent.setEnrollments(new ArrayList<>(List.of(enrollment)));
-
-        when(studentRepository.findByStudentIdAndStatusEquals(1, Student.Status.Active))
-                .thenReturn(Optional.of(activeStudent));
+        when(studentRepository.deactivateByStudentIdIn(eq(List.of(1)), any())).thenReturn(1);
+        when(enrollmentRepository.findCourseIdsByStudentId(1)).thenReturn(List.of(1, 2));
 
         studentService.deleteStudent(1);
 
-        assertThat(activeStudent.getStatus()).isEqualTo(Student.Status.Inactive);
-        assertThat(activeStudent.getEnrollments()).isEmpty();
-        verify(enrollmentRepository).deleteByStudent_StudentId(1);
-        verify(studentRepository).save(activeStudent);
+        verify(studentRepository).deactivateByStudentIdIn(eq(List.of(1)), any());
+        // only the student's courses are offered to their waitlists
+        verify(eventPublisher).publishEvent(SeatsReleasedEvent.of(List.of(1, 2)));
+        // the events are read from the enrollments, so they have to be recorded before those go
+        InOrder order = inOrder(enrollmentOutbox, enrollmentRepository);
+        order.verify(enrollmentOutbox).recordUnenrollmentsOfStudents(List.of(1));
+        order.verify(enrollmentRepository).deleteAllByStudentIdIn(List.of(1));
     }
 
     @Test
     void testDeleteStudentForResourceNotFoundExceptionWhenStudentNotFound() {
-        when(studentRepository.findByStudentIdAndStatusEquals(99, Student.Status.Active))
-                .thenReturn(Optional.empty());
+        when(studentRepository.deactivateByStudentIdIn(eq(List.of(99)), any())).thenReturn(0);
 
         assertThatThrownBy(() -> studentService.deleteStudent(99))
                 .isInstanceOf(ResourceNotFoundException.class);
 
-        verify(enrollmentRepository, never()).deleteByStudent_StudentId(any());
-        verify(studentRepository, never()).save(any());
+        verify(enrollmentRepository, never()).deleteAllByStudentIdIn(any());
     }
 
     @Test
     void testDeleteStudentDoesNotHardDelete() {
-        when(studentRepository.findByStudentIdAndStatusEquals(1, Student.Status.Active))
-                .thenReturn(Optional.of(activeStudent));
+        when(studentRepository.deactivateByStudentIdIn(eq(List.of(1)), any())).thenReturn(1);
 
         studentService.deleteStudent(1);
 
         verify(studentRepository, never()).delete(any(Student.class));
         verify(studentRepository, never()).deleteById(any());
     }
-}
\ No newline at end of file
+
+    // ─── deactivateStudents ───────────────────────────────────────────────────
+
+    @Test
+    void testDeactivateStudentsRunsTwoStatementsPerChunk() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= SMSConstants.DEACTIVATION_CHUNK_SIZE + 1; i++) {
+            ids.add(i);
+        }
+        when(studentRepository.deactivateByStudentIdIn(any(), any())).thenReturn(SMSConstants.DEACTIVATION_CHUNK_SIZE, 1);
+
+        int result = studentService.deactivateStudents(ids);
+
+        assertThat(result).isEqualTo(ids.size());
+        verify(studentRepository, times(2)).deactivateByStudentIdIn(any(), any());
+        verify(enrollmentRepository, times(2)).deleteAllByStudentIdIn(any());
+        verify(enrollmentOutbox, times(2)).recordUnenrollmentsOfStudents(any());
+        verify(eventPublisher, never()).publishEvent(any(SeatsReleasedEvent.class));
+    }
+
+    @Test
+    void testDeactivateStudentsReleasesSeatsOfTheirCoursesOnly() {
+        when(studentRepository.deactivateByStudentIdIn(any(), any())).thenReturn(2);
+        when(enrollmentRepository.findCourseIdsByStudentIdIn(List.of(1, 2))).thenReturn(List.of(3, 4));
+
+        studentService.deactivateStudents(List.of(1, 2));
+
+        verify(eventPublisher).publishEvent(SeatsReleasedEvent.of(List.of(3, 4)));
+    }
+
+    private static StudentSummary summary(Integer id) {
+        return new StudentSummary(id, "John", "Doe", "john" + id + "@example.com", null, "Main St");
+    }
+}
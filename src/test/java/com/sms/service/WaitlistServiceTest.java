@@ -0,0 +1,151 @@
+package com.sms.service;
+
+import com.sms.dto.BulkEnrollmentResultDTO;
+import com.sms.dto.BulkRowResultDTO;
+import com.sms.dto.CourseDTO;
+import com.sms.dto.PageResponseDTO;
+import com.sms.dto.StudentDTO;
+import com.sms.dto.WaitlistEntryDTO;
+import com.sms.exception.CourseFullException;
+import com.sms.exception.ResourceNotFoundException;
+import com.sms.repository.CourseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class WaitlistServiceTest {
+
+    @Autowired
+    private IWaitlistService waitlistService;
+
+    @Autowired
+    private IStudentService studentService;
+
+    @Autowired
+    private ICourseService courseService;
+
+    @Autowired
+    private IStudentEnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testFreedSeatGoesToTheHeadOfTheQueue() throws Exception {
+        CourseDTO course = course("Organic Chemistry", 2);
+        List<Integer> students = students("queue", 6);
+
+        assertThat(waitlistService.joinWaitlist(students.get(0), course.getId()).getStatus()).isEqualTo(WaitlistEntryDTO.Status.ENROLLED);
+        assertThat(waitlistService.joinWaitlist(students.get(1), course.getId()).getStatus()).isEqualTo(WaitlistEntryDTO.Status.ENROLLED);
+        for (int i = 2; i < 5; i++) {
+            WaitlistEntryDTO entry = waitlistService.joinWaitlist(students.get(i), course.getId());
+            assertThat(entry.getStatus()).isEqualTo(WaitlistEntryDTO.Status.WAITLISTED);
+            assertThat(entry.getPosition()).isEqualTo(i - 1);
+        }
+        assertThat(waitlistService.joinWaitlist(students.get(3), course.getId()).getPosition()).isEqualTo(2);
+        assertThatThrownBy(() -> studentService.enrollInCourse(students.get(5), course.getId()))
+                .isInstanceOf(CourseFullException.class);
+
+        studentService.unenrollFromCourse(students.get(0), course.getId());
+
+        awaitTrue(() -> enrolled(course.getId()).contains(students.get(2)));
+        assertThat(enrolled(course.getId())).containsExactlyInAnyOrder(students.get(1), students.get(2));
+        assertThat(courseRepository.findEnrolledCountByCourseId(course.getId())).contains(2);
+        assertThat(waitlistService.getWaitlist(course.getId(), null, null).getItems())
+                .extracting(WaitlistEntryDTO::getStudentId, WaitlistEntryDTO::getPosition)
+                .containsExactly(tuple(students.get(3), 1L), tuple(students.get(4), 2L));
+    }
+
+    @Test
+    void testLeavingTheQueueMovesEveryoneBehindUp() {
+        CourseDTO course = course("Astrophysics", 1);
+        List<Integer> students = students("leave", 4);
+        students.forEach(studentId -> waitlistService.joinWaitlist(studentId, course.getId()));
+
+        waitlistService.leaveWaitlist(students.get(1), course.getId());
+
+        assertThat(waitlistService.joinWaitlist(students.get(3), course.getId()).getPosition()).isEqualTo(2);
+        assertThatThrownBy(() -> waitlistService.leaveWaitlist(students.get(1), course.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void testBulkEnrollmentLeavesFreeSeatsToTheQueue() {
+        CourseDTO course = course("Marine Biology", 1);
+        List<Integer> students = students("bulk", 3);
+        waitlistService.joinWaitlist(students.get(0), course.getId());
+        waitlistService.joinWaitlist(students.get(1), course.getId());
+        // a seat frees up before the queue has been promoted into it
+        jdbcTemplate.update("update sms.course set capacity = 2 where course_id = ?", course.getId());
+
+        BulkEnrollmentResultDTO result = enrollmentService.enrollStudents(course.getId(), List.of(students.get(2)));
+
+        assertThat(result.getEnrolled()).isEmpty();
+        assertThat(result.getCourseFull()).containsExactly(students.get(2));
+        assertThat(waitlistService.promoteNext(course.getId())).isEqualTo(1);
+        assertThat(enrolled(course.getId())).containsExactlyInAnyOrder(students.get(0), students.get(1));
+        assertThat(courseRepository.findEnrolledCountByCourseId(course.getId())).contains(2);
+    }
+
+    @Test
+    void testRaisingTheCapacityDrainsALongQueueInBatches() throws Exception {
+        CourseDTO course = course("Intro to Economics", 1);
+        List<Integer> students = students("crowd", 1500);
+        students.forEach(studentId -> waitlistService.joinWaitlist(studentId, course.getId()));
+
+        PageResponseDTO<WaitlistEntryDTO> page = waitlistService.getWaitlist(course.getId(), null, 500);
+        page = waitlistService.getWaitlist(course.getId(), page.getNextCursor(), 500);
+        assertThat(page.getItems().getFirst().getPosition()).isEqualTo(501);
+
+        course.setCapacity(2000);
+        courseService.updateCourse(course.getId(), course);
+
+        awaitTrue(() -> waitlistService.getWaitlist(course.getId(), null, 1).getItems().isEmpty());
+        assertThat(enrolled(course.getId())).hasSize(1500);
+        assertThat(courseRepository.findEnrolledCountByCourseId(course.getId())).contains(1500);
+    }
+
+    private List<Integer> enrolled(Integer courseId) {
+        return jdbcTemplate.queryForList("select student_id from sms.enrollments where course_id = ?", Integer.class, courseId);
+    }
+
+    private CourseDTO course(String name, int capacity) {
+        return courseService.createCourse(CourseDTO.builder()
+                .name(name).description(name).credits(3).capacity(capacity).build());
+    }
+
+    private List<Integer> students(String prefix, int count) {
+        List<StudentDTO> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(StudentDTO.builder()
+                    .firstName("First" + i).lastName("Last" + i)
+                    .email(prefix + i + "@sms.com")
+                    .address("Campus housing")
+                    .build());
+        }
+        return studentService.importStudents(students).getRows().stream().map(BulkRowResultDTO::getId).toList();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}